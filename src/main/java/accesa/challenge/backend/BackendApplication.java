@@ -2,8 +2,10 @@ package accesa.challenge.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -19,4 +21,40 @@ public class BackendApplication {
 	public PasswordEncoder passwordEncoder() {
 		return new BCryptPasswordEncoder();
 	}
+
+	@Bean
+	public ThreadPoolTaskExecutor importExecutor(@Value("${import.worker-threads:4}") int workerThreads) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(workerThreads);
+		executor.setMaxPoolSize(workerThreads);
+		executor.setThreadNamePrefix("import-");
+		return executor;
+	}
+
+	@Bean
+	public ThreadPoolTaskExecutor importJobExecutor(@Value("${import.max-concurrent-jobs:1}") int maxConcurrentJobs) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(maxConcurrentJobs);
+		executor.setMaxPoolSize(maxConcurrentJobs);
+		executor.setThreadNamePrefix("import-job-");
+		return executor;
+	}
+
+	@Bean
+	public ThreadPoolTaskExecutor notificationExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("notification-");
+		return executor;
+	}
+
+	@Bean
+	public ThreadPoolTaskExecutor alertExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("alert-");
+		return executor;
+	}
 }
@@ -1,15 +1,19 @@
 package accesa.challenge.backend.controller;
 
+import accesa.challenge.backend.domain.dto.ImportFileResultDTO;
+import accesa.challenge.backend.domain.dto.ImportJobDTO;
 import accesa.challenge.backend.domain.exception.CustomException;
+import accesa.challenge.backend.service.ImportJobService;
 import accesa.challenge.backend.service.ImportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
@@ -19,24 +23,65 @@ public class ImportController {
     @Autowired
     private final ImportService importService;
 
+    @Autowired
+    private final ImportJobService importJobService;
+
     @GetMapping("/products")
     public ResponseEntity<String> importAllProducts() {
-        try {
-            List<String> importedFiles = importService.readAllCsvFiles();
-            String message = "Imported products from files: " + String.join(", ", importedFiles);
-            return ResponseEntity.ok(message);
-        } catch (CustomException ce) {
-            return ResponseEntity.status(500).body("Import failed: " + ce.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Unexpected error during import: " + e.getMessage());
-        }
+        return runImport("Imported products from files: ", importService::readAllCsvFiles);
     }
 
     @GetMapping("/discounts")
     public ResponseEntity<String> importAllDiscounts() {
+        return runImport("Imported discounts from files: ", importService::readAllDiscountCsvFiles);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<String> importAllProductsAndDiscounts() {
+        return runImport("Imported products and discounts from files: ", importService::readAllCsvFilesWithDiscounts);
+    }
+
+    // POST /api/import/jobs?type=all|products|discounts
+    @PostMapping("/jobs")
+    public ResponseEntity<ImportJobDTO> startImportJob(@RequestParam(defaultValue = "all") String type) {
+        return switch (type) {
+            case "all" -> ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.startImportJob(true, true));
+            case "products" -> ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.startImportJob(true, false));
+            case "discounts" -> ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.startImportJob(false, true));
+            default -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        };
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable String jobId) {
+        return importJobService.getImportJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<String> runImport(String messagePrefix, Supplier<List<ImportFileResultDTO>> importFunction) {
         try {
-            List<String> importedFiles = importService.readAllDiscountCsvFiles();
-            String message = "Imported discounts from files: " + String.join(", ", importedFiles);
+            List<ImportFileResultDTO> results = importFunction.get();
+            String message = messagePrefix + results.stream()
+                    .filter(result -> result.isSuccess() && !result.isUnchanged())
+                    .map(ImportFileResultDTO::getFilename)
+                    .collect(Collectors.joining(", "));
+
+            List<String> unchangedFiles = results.stream()
+                    .filter(ImportFileResultDTO::isUnchanged)
+                    .map(ImportFileResultDTO::getFilename)
+                    .toList();
+            if (!unchangedFiles.isEmpty()) {
+                message += ". Unchanged files (skipped): " + String.join(", ", unchangedFiles);
+            }
+
+            List<String> failedFiles = results.stream()
+                    .filter(result -> !result.isSuccess())
+                    .map(result -> result.getFilename() + " (" + result.getError() + ")")
+                    .toList();
+            if (!failedFiles.isEmpty()) {
+                message += ". Failed files: " + String.join(", ", failedFiles);
+            }
             return ResponseEntity.ok(message);
         } catch (CustomException ce) {
             return ResponseEntity.status(500).body("Import failed: " + ce.getMessage());
@@ -1,16 +1,29 @@
 package accesa.challenge.backend.controller;
 
+import accesa.challenge.backend.domain.dto.ProductActiveDiscountDTO;
 import accesa.challenge.backend.domain.dto.ProductBestDiscountDTO;
+import accesa.challenge.backend.domain.dto.ProductCheapestDTO;
+import accesa.challenge.backend.domain.dto.ProductCurrentPriceDTO;
 import accesa.challenge.backend.domain.dto.ProductNewDiscountDTO;
+import accesa.challenge.backend.domain.dto.ProductPriceHistoryCompactDTO;
 import accesa.challenge.backend.domain.dto.ProductPriceHistoryDTO;
 import accesa.challenge.backend.domain.dto.ProductRecommendationDTO;
 import accesa.challenge.backend.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -18,14 +31,28 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping("/api/products")
 public class ProductController {
+    private static final String HAS_NEXT_PAGE_HEADER = "X-Has-Next-Page";
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     @Autowired
     private final ProductService productService;
 
+    @Autowired
+    private final ObjectMapper objectMapper;
+
+    // GET /api/products/best-discounts?limit=10&store=lidl&category=lactate
     @GetMapping("/best-discounts")
-    public ResponseEntity<List<ProductBestDiscountDTO>> getBestDiscounts() {
-        List<ProductBestDiscountDTO> bestDiscounts = productService.getBestDiscounts();
-        return ResponseEntity.ok(bestDiscounts);
+    public ResponseEntity<List<ProductBestDiscountDTO>> getBestDiscounts(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String store,
+            @RequestParam(required = false) String category
+    ) {
+        try {
+            List<ProductBestDiscountDTO> bestDiscounts = productService.getBestDiscounts(limit, store, category);
+            return ResponseEntity.ok(bestDiscounts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/new-discounts")
@@ -33,17 +60,104 @@ public class ProductController {
         return ResponseEntity.ok(productService.getRecentDiscounts());
     }
 
-    // GET /api/products/price-history?store=kaufland&startDate=2025-05-01&endDate=2025-05-20
+    // GET /api/products/active-discounts?store=lidl
+    @GetMapping("/active-discounts")
+    public ResponseEntity<List<ProductActiveDiscountDTO>> getActiveDiscounts(@RequestParam(required = false) String store) {
+        return ResponseEntity.ok(productService.getActiveDiscounts(store));
+    }
+
+    // GET /api/products/price-history?store=kaufland&startDate=2025-05-01&endDate=2025-05-20&page=0&size=50
     @GetMapping("/price-history")
     public ResponseEntity<List<ProductPriceHistoryDTO>> getPriceHistory(
+            @RequestParam(required = false) String store,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size
+    ) {
+        Pageable pageable;
+        try {
+            pageable = toPageable(page, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        Slice<ProductPriceHistoryDTO> history = productService.getPriceHistoryWithRange(store, category, brand, startDate, endDate, pageable);
+        return history.isEmpty()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok().header(HAS_NEXT_PAGE_HEADER, String.valueOf(history.hasNext())).body(history.getContent());
+    }
+
+    // GET /api/products/price-history?format=compact&store=kaufland&startDate=2025-01-01&endDate=2025-12-31&page=0&size=50
+    @GetMapping(value = "/price-history", params = "format=compact")
+    public ResponseEntity<List<ProductPriceHistoryCompactDTO>> getCompactPriceHistory(
+            @RequestParam(required = false) String store,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size
+    ) {
+        Pageable pageable;
+        try {
+            pageable = toPageable(page, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        Slice<ProductPriceHistoryCompactDTO> history = productService.getCompactPriceHistoryWithRange(store, category, brand, startDate, endDate, pageable);
+        return history.isEmpty()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok().header(HAS_NEXT_PAGE_HEADER, String.valueOf(history.hasNext())).body(history.getContent());
+    }
+
+    // GET /api/products/price-history/stream?store=kaufland&startDate=2025-01-01&endDate=2025-12-31
+    @GetMapping("/price-history/stream")
+    public ResponseEntity<StreamingResponseBody> streamPriceHistory(
             @RequestParam(required = false) String store,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String brand,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
-        List<ProductPriceHistoryDTO> history = productService.getPriceHistoryWithRange(store, category, brand, startDate, endDate);
-        return history.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(history);
+        StreamingResponseBody body = outputStream -> productService.streamPriceHistory(store, category, brand, startDate, endDate,
+                history -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(history));
+                        outputStream.write('\n');
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    // GET /api/products/current-prices?productName=lapte zuzu
+    @GetMapping("/current-prices")
+    public ResponseEntity<List<ProductCurrentPriceDTO>> getCurrentPrices(@RequestParam String productName) {
+        List<ProductCurrentPriceDTO> currentPrices = productService.getCurrentPrices(productName);
+        return currentPrices.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(currentPrices);
+    }
+
+    // GET /api/products/cheapest?category=lactate&k=20&unit=kg&applyDiscounts=true
+    @GetMapping("/cheapest")
+    public ResponseEntity<List<ProductCheapestDTO>> getCheapestProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) String unit,
+            @RequestParam(required = false) String store,
+            @RequestParam(defaultValue = "false") boolean applyDiscounts,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        try {
+            List<ProductCheapestDTO> cheapest = productService.getCheapestProducts(
+                    category, k, unit, store, applyDiscounts, date != null ? date : LocalDate.now());
+            return cheapest.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(cheapest);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     // GET /recommendations?productName=iaurt grecesc&fromDate=2025-05-01&toDate=2025-05-15
@@ -56,4 +170,22 @@ public class ProductController {
         List<ProductRecommendationDTO> recommendations = productService.getBestProductRecommendations(productName, fromDate, toDate);
         return recommendations.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(recommendations);
     }
+
+    /**
+     * Builds the requested page, or an unpaged request when no size is given.
+     *
+     * @throws IllegalArgumentException if page is negative or size is not positive
+     */
+    private static Pageable toPageable(int page, Integer size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative.");
+        }
+        if (size == null) {
+            return Pageable.unpaged();
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be greater than 0.");
+        }
+        return PageRequest.of(page, size);
+    }
 }
@@ -44,9 +44,10 @@ public class UserController {
     }
 
     @GetMapping("/optimize-basket/{userId}")
-    public ResponseEntity<List<ShoppingBasketDTO>> optimizeUserBasket(@PathVariable Integer userId) {
+    public ResponseEntity<List<ShoppingBasketDTO>> optimizeUserBasket(@PathVariable Integer userId,
+                                                                      @RequestParam(required = false) Integer maxStores) {
         try {
-            List<ShoppingBasketDTO> optimizedLists = userService.optimizeUserBasket(userId);
+            List<ShoppingBasketDTO> optimizedLists = userService.optimizeUserBasket(userId, maxStores);
             return ResponseEntity.ok(optimizedLists);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -0,0 +1,23 @@
+package accesa.challenge.backend.domain.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ImportFileResultDTO {
+    private String filename;
+    private boolean success;
+    private boolean unchanged;
+    private String error;
+    private int rowsImported;
+    private int rowsSkipped;
+    /**
+     * Discount rows skipped because their product is not imported.
+     */
+    private int rowsWithoutProduct;
+    private int batches;
+    private long durationMillis;
+}
@@ -0,0 +1,28 @@
+package accesa.challenge.backend.domain.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ImportJobDTO {
+    private String id;
+    private Status status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int totalFiles;
+    private int filesDone;
+    private long rowsProcessed;
+    private long rowsSkipped;
+    private double rowsPerSecond;
+    private List<String> errors;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
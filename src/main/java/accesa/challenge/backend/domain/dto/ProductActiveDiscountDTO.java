@@ -0,0 +1,21 @@
+package accesa.challenge.backend.domain.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ProductActiveDiscountDTO {
+    private String productId;
+    private String productName;
+    private String brand;
+    private String supermarket;
+    private double discountPercentage;
+    private LocalDate discountFromDate;
+    private LocalDate discountToDate;
+    private LocalDate productFetchDate;
+}
@@ -11,5 +11,6 @@ public class ProductBestDiscountDTO {
     private String productName;
     private String brand;
     private String supermarket;
+    private String category;
     private double discountPercentage;
 }
@@ -0,0 +1,23 @@
+package accesa.challenge.backend.domain.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ProductCheapestDTO {
+    private String productId;
+    private String productName;
+    private String brand;
+    private String store;
+    private String category;
+    private double packageQuantity;
+    private String packageUnit;
+    private double price;
+    private double discountPercentage;
+    private double effectivePrice;
+    private String unit;
+    private double pricePerUnit;
+}
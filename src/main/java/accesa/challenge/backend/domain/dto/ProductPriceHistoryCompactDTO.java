@@ -0,0 +1,27 @@
+package accesa.challenge.backend.domain.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Price history of a product in columnar, run-length encoded form.
+ * Run i covers runLengths[i] consecutive days, starting on startDate for the first run,
+ * during which the price and discount stay the same.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ProductPriceHistoryCompactDTO {
+    private String productId;
+    private String productName;
+    private String brand;
+    private String supermarket;
+    private LocalDate startDate;
+    private int[] runLengths;
+    private double[] originalPrices;
+    private int[] discountPercentages;
+    private double[] finalPrices;
+}
@@ -0,0 +1,29 @@
+package accesa.challenge.backend.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A running instance that takes part in the price alert evaluation, with the time of its last heartbeat.
+ * The live nodes decide how many alert shards each of them should own.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "alert_evaluator_nodes")
+public class AlertEvaluatorNode {
+
+    @Id
+    @Column(name = "node_id", length = 128)
+    private String nodeId;
+
+    @Column(name = "last_seen", nullable = false)
+    private LocalDateTime lastSeen;
+}
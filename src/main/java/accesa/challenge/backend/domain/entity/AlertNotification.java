@@ -0,0 +1,78 @@
+package accesa.challenge.backend.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification of a triggered price alert, waiting in the outbox to be delivered.
+ * It is written in the same transaction that triggers the alert and delivered later by the notification dispatcher,
+ * so delivery never holds the alert check open.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "alert_notifications", indexes = {
+        @Index(name = "idx_alert_notifications_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_alert_notifications_status_created", columnList = "status, created_at")
+})
+public class AlertNotification {
+
+    /**
+     * PENDING notifications are due at nextAttemptAt; SENDING ones are being delivered by a dispatcher
+     * whose lease runs until nextAttemptAt, after which another dispatcher may claim them again.
+     */
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "alert_id", nullable = false)
+    private Long alertId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "target_price", nullable = false)
+    private double targetPrice;
+
+    /**
+     * The matching prices, one store per line.
+     */
+    @Column(name = "content", nullable = false, length = 4000)
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
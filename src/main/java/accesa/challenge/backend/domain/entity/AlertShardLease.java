@@ -0,0 +1,49 @@
+package accesa.challenge.backend.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The lease of one price alert shard. The node named by the owner evaluates the alerts of the shard
+ * until the lease expires, unless it renews it first.
+ * The lease also holds the cursor of the shard: how far the products, discounts and alerts were already evaluated,
+ * so the owner of the shard, whichever instance it is, only evaluates what changed since.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "alert_shard_leases")
+public class AlertShardLease {
+
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    @Column(name = "owner", length = 128)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    /**
+     * The start of the last sweep of this shard. The next sweep evaluates the alerts created and the files imported
+     * since then, minus an overlap for the rows stamped before and committed after it.
+     */
+    @Column(name = "swept_at")
+    private LocalDateTime sweptAt;
+
+    /**
+     * The day of the last full evaluation of this shard. Discounts start and end with the days, without new rows,
+     * so every shard is evaluated in full once a day.
+     */
+    @Column(name = "evaluated_on")
+    private LocalDate evaluatedOn;
+}
@@ -0,0 +1,75 @@
+package accesa.challenge.backend.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the latest price snapshot of every product in every supermarket, with the best discount
+ * of that snapshot that is active today folded into the final price.
+ * It is maintained by the import, in the same transactions that write the products and discounts,
+ * and its discounts are refreshed every day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "current_prices", indexes = {
+        @Index(name = "idx_current_prices_name_final_price", columnList = "product_name, final_price"),
+        @Index(name = "idx_current_prices_category_unit_price", columnList = "product_category, normalized_unit, final_price_per_unit")
+})
+public class CurrentPrice {
+
+    @EmbeddedId
+    private CurrentPriceId currentPriceId;
+
+    /**
+     * The creation date of the snapshot the price comes from.
+     */
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "product_category", nullable = false)
+    private String productCategory;
+
+    @Column(name = "brand", nullable = false)
+    private String brand;
+
+    @Column(name = "package_quantity", nullable = false)
+    private Double packageQuantity;
+
+    @Column(name = "package_unit", nullable = false)
+    private String packageUnit;
+
+    @Column(name = "currency", nullable = false)
+    private String currency;
+
+    @Column(name = "normalized_unit", length = 16)
+    private String normalizedUnit;
+
+    @Column(name = "price", nullable = false)
+    private Double price;
+
+    @Column(name = "price_per_unit")
+    private Double pricePerUnit;
+
+    @Column(name = "discount_percentage", nullable = false)
+    private Double discountPercentage;
+
+    /**
+     * The price with the active discount applied.
+     */
+    @Column(name = "final_price", nullable = false)
+    private Double finalPrice;
+
+    @Column(name = "final_price_per_unit")
+    private Double finalPricePerUnit;
+}
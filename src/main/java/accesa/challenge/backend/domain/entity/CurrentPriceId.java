@@ -0,0 +1,25 @@
+package accesa.challenge.backend.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * This class represents the composite key for the CurrentPrice entity.
+ * It consists of the product ID and the supermarket.
+ */
+@Embeddable
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CurrentPriceId implements Serializable {
+
+    @Column(name = "product_id")
+    private String productId;
+
+    @Column(name = "supermarket")
+    private String supermarket;
+}
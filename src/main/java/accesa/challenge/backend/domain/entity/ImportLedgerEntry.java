@@ -0,0 +1,46 @@
+package accesa.challenge.backend.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records the fingerprint of every imported CSV file,
+ * so unchanged files can be skipped on the next import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "import_ledger", indexes = {
+        @Index(name = "idx_import_ledger_imported_at", columnList = "imported_at")
+})
+public class ImportLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "filename", unique = true, nullable = false)
+    private String filename;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    /**
+     * The SHA-256 hash of the file content, hex encoded.
+     */
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    @Column(name = "imported_at", nullable = false)
+    private LocalDateTime importedAt;
+}
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "price_alerts")
+@Table(name = "price_alerts", indexes = {
+        @Index(name = "idx_price_alerts_triggered_created", columnList = "alert_triggered, created_at"),
+        @Index(name = "idx_price_alerts_triggered_product", columnList = "alert_triggered, product_name")
+})
 public class PriceAlert {
 
     @Id
@@ -13,7 +13,12 @@ import java.io.Serializable;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_store_category_brand_date", columnList = "supermarket, product_category, brand, creation_date"),
+        @Index(name = "idx_products_product_store_date", columnList = "product_id, supermarket, creation_date"),
+        @Index(name = "idx_products_category_unit_price", columnList = "product_category, normalized_unit, price_per_unit"),
+        @Index(name = "idx_products_store_date_name", columnList = "supermarket, creation_date, product_name")
+})
 public class Product implements Serializable {
 
     @EmbeddedId
@@ -39,4 +44,22 @@ public class Product implements Serializable {
 
     @Column(name = "currency", nullable = false)
     private String currency;
+
+    /**
+     * Package quantity in the normalized unit; null when the package unit is unknown.
+     */
+    @Column(name = "normalized_quantity")
+    private Double normalizedQuantity;
+
+    /**
+     * Canonical unit of the package (kg, l or a count unit); null when the package unit is unknown.
+     */
+    @Column(name = "normalized_unit", length = 16)
+    private String normalizedUnit;
+
+    /**
+     * Price per normalized unit; null when the package unit is unknown.
+     */
+    @Column(name = "price_per_unit")
+    private Double pricePerUnit;
 }
@@ -14,7 +14,9 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "product_discounts")
+@Table(name = "product_discounts", indexes = {
+        @Index(name = "idx_discounts_product_store_dates", columnList = "product_id, supermarket, from_date, to_date")
+})
 public class ProductDiscount {
 
     @Id
@@ -48,16 +50,26 @@ public class ProductDiscount {
                 && this.product.getProductId() != null
                 && this.product.getProductId().getCreationDate() != null
                 && this.discountFromDate != null) {
+            this.createdAt = generateCreatedAt(this.discountFromDate);
+        }
+    }
 
-            LocalDate endDate = this.discountFromDate;
-            LocalDate startDate = endDate.minusDays(5);
+    /**
+     * Simulates the date when a discount was added, as a random date
+     * between five days before and the day of the discount's start date.
+     *
+     * @param discountFromDate the date the discount starts
+     * @return the generated creation date
+     */
+    public static LocalDate generateCreatedAt(LocalDate discountFromDate) {
+        LocalDate endDate = discountFromDate;
+        LocalDate startDate = endDate.minusDays(5);
 
-            long startEpochDay = startDate.toEpochDay();
-            long endEpochDay = endDate.toEpochDay();
+        long startEpochDay = startDate.toEpochDay();
+        long endEpochDay = endDate.toEpochDay();
 
-            SecureRandom random = new SecureRandom();
-            long randomEpochDay = startEpochDay + random.nextInt((int) (endEpochDay - startEpochDay + 1));
-            this.createdAt = LocalDate.ofEpochDay(randomEpochDay);
-        }
+        SecureRandom random = new SecureRandom();
+        long randomEpochDay = startEpochDay + random.nextInt((int) (endEpochDay - startEpochDay + 1));
+        return LocalDate.ofEpochDay(randomEpochDay);
     }
 }
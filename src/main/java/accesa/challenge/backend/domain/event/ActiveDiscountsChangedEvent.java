@@ -0,0 +1,19 @@
+package accesa.challenge.backend.domain.event;
+
+import accesa.challenge.backend.domain.dto.ProductActiveDiscountDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published when discounts become active or expire as days pass.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ActiveDiscountsChangedEvent {
+    private final List<ProductActiveDiscountDTO> activated;
+    private final List<ProductActiveDiscountDTO> expired;
+}
@@ -0,0 +1,19 @@
+package accesa.challenge.backend.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Published after the discounts of a supermarket's product snapshot have been deleted,
+ * before a modified discount file is imported again.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class DiscountsDeletedEvent {
+    private final String supermarket;
+    private final LocalDate creationDate;
+}
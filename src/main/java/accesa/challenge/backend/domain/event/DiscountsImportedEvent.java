@@ -0,0 +1,18 @@
+package accesa.challenge.backend.domain.event;
+
+import accesa.challenge.backend.domain.entity.ProductDiscount;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published after a chunk of discounts has been committed by the import.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class DiscountsImportedEvent {
+    private final List<ProductDiscount> discounts;
+}
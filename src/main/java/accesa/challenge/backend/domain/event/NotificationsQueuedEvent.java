@@ -0,0 +1,15 @@
+package accesa.challenge.backend.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when alert notifications are written to the outbox.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class NotificationsQueuedEvent {
+    private final int count;
+}
@@ -0,0 +1,16 @@
+package accesa.challenge.backend.domain.event;
+
+import accesa.challenge.backend.domain.entity.PriceAlert;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after a price alert has been saved.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class PriceAlertCreatedEvent {
+    private final PriceAlert alert;
+}
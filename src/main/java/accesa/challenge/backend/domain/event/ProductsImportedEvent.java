@@ -0,0 +1,18 @@
+package accesa.challenge.backend.domain.event;
+
+import accesa.challenge.backend.domain.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published after a chunk of products has been committed by the import.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ProductsImportedEvent {
+    private final List<Product> products;
+}
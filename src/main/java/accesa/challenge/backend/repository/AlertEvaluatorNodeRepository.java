@@ -0,0 +1,12 @@
+package accesa.challenge.backend.repository;
+
+import accesa.challenge.backend.domain.entity.AlertEvaluatorNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AlertEvaluatorNodeRepository extends JpaRepository<AlertEvaluatorNode, String> {
+    long countByLastSeenAfter(LocalDateTime time);
+}
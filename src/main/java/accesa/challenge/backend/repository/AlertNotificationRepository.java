@@ -0,0 +1,38 @@
+package accesa.challenge.backend.repository;
+
+import accesa.challenge.backend.domain.entity.AlertNotification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AlertNotificationRepository extends JpaRepository<AlertNotification, Long> {
+
+    /**
+     * Locks the oldest notifications that are due, pending or left sending by a dispatcher whose lease expired,
+     * skipping the ones another dispatcher already locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM AlertNotification n WHERE n.status IN ('PENDING', 'SENDING') AND n.nextAttemptAt <= :now ORDER BY n.id")
+    List<AlertNotification> lockDueNotifications(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Deletes the sent and failed notifications created before the given time.
+     *
+     * @return the number of deleted notifications
+     */
+    @Modifying
+    @Query("DELETE FROM AlertNotification n WHERE n.status IN ('SENT', 'FAILED') AND n.createdAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
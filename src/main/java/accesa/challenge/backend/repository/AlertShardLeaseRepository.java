@@ -0,0 +1,69 @@
+package accesa.challenge.backend.repository;
+
+import accesa.challenge.backend.domain.entity.AlertShardLease;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AlertShardLeaseRepository extends JpaRepository<AlertShardLease, Integer> {
+
+    /**
+     * Creates the lease row of a shard unless another node already did.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO alert_shard_leases (shard_id) VALUES (:shardId)", nativeQuery = true)
+    void insertShardIfAbsent(@Param("shardId") int shardId);
+
+    @Query("SELECT l.shardId FROM AlertShardLease l " +
+            "WHERE l.owner = :owner AND l.shardId < :shardCount ORDER BY l.shardId")
+    List<Integer> findShardIdsByOwner(@Param("owner") String owner, @Param("shardCount") int shardCount);
+
+    /**
+     * Locks up to {@code limit} shards that have no owner or whose lease expired.
+     * Shards locked by a node claiming at the same time are skipped rather than waited for,
+     * so concurrent nodes claim different shards.
+     */
+    @Query(value = "SELECT shard_id FROM alert_shard_leases " +
+            "WHERE shard_id < :shardCount AND (owner IS NULL OR lease_until IS NULL OR lease_until < :now) " +
+            "ORDER BY shard_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockClaimableShards(@Param("shardCount") int shardCount,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE AlertShardLease l SET l.owner = :owner, l.leaseUntil = :leaseUntil WHERE l.shardId IN :shardIds")
+    int assign(@Param("shardIds") Collection<Integer> shardIds,
+               @Param("owner") String owner,
+               @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE AlertShardLease l SET l.leaseUntil = :leaseUntil WHERE l.owner = :owner")
+    int renew(@Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE AlertShardLease l SET l.owner = NULL, l.leaseUntil = NULL " +
+            "WHERE l.owner = :owner AND l.shardId IN :shardIds")
+    int release(@Param("owner") String owner, @Param("shardIds") Collection<Integer> shardIds);
+
+    @Modifying
+    @Query("UPDATE AlertShardLease l SET l.sweptAt = :sweptAt, l.evaluatedOn = :evaluatedOn " +
+            "WHERE l.owner = :owner AND l.shardId IN :shardIds")
+    int advanceCursor(@Param("shardIds") Collection<Integer> shardIds,
+                      @Param("owner") String owner,
+                      @Param("sweptAt") LocalDateTime sweptAt,
+                      @Param("evaluatedOn") LocalDate evaluatedOn);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AlertShardLease l SET l.owner = NULL, l.leaseUntil = NULL WHERE l.owner = :owner")
+    int releaseAll(@Param("owner") String owner);
+}
@@ -0,0 +1,16 @@
+package accesa.challenge.backend.repository;
+
+import accesa.challenge.backend.domain.entity.CurrentPrice;
+import accesa.challenge.backend.domain.entity.CurrentPriceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CurrentPriceRepository extends JpaRepository<CurrentPrice, CurrentPriceId> {
+    List<CurrentPrice> findByProductNameOrderByFinalPrice(String productName);
+    List<CurrentPrice> findByProductNameIn(Collection<String> productNames);
+    List<CurrentPrice> findByCurrentPriceIdProductIdIn(Collection<String> productIds);
+}
@@ -0,0 +1,22 @@
+package accesa.challenge.backend.repository;
+
+import accesa.challenge.backend.domain.entity.ImportLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImportLedgerRepository extends JpaRepository<ImportLedgerEntry, Long> {
+    Optional<ImportLedgerEntry> findByFilename(String filename);
+
+    /**
+     * Returns the names of the files imported, or imported again, after the given time.
+     */
+    @Query("SELECT e.filename FROM ImportLedgerEntry e WHERE e.importedAt > :since")
+    List<String> findFilenamesImportedAfter(@Param("since") LocalDateTime since);
+}
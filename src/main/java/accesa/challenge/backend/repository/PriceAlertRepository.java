@@ -1,12 +1,62 @@
 package accesa.challenge.backend.repository;
 
 import accesa.challenge.backend.domain.entity.PriceAlert;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PriceAlertRepository extends JpaRepository<PriceAlert, Integer> {
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
     List<PriceAlert> findByAlertTriggeredFalse();
+
+    /**
+     * Loads the untriggered alerts whose ID hashes into one of the given shards.
+     */
+    @Query("SELECT a FROM PriceAlert a WHERE a.alertTriggered = false AND MOD(a.id, :shardCount) IN :shards")
+    List<PriceAlert> findUntriggeredInShards(@Param("shardCount") int shardCount,
+                                             @Param("shards") Collection<Integer> shards);
+
+    /**
+     * Loads the untriggered alerts of the given shards created after the given time.
+     */
+    @Query("SELECT a FROM PriceAlert a WHERE a.alertTriggered = false AND a.createdAt > :since " +
+            "AND MOD(a.id, :shardCount) IN :shards")
+    List<PriceAlert> findUntriggeredInShardsCreatedAfter(@Param("shardCount") int shardCount,
+                                                         @Param("shards") Collection<Integer> shards,
+                                                         @Param("since") LocalDateTime since);
+
+    /**
+     * Loads the untriggered alerts of the given shards on the given products.
+     */
+    @Query("SELECT a FROM PriceAlert a WHERE a.alertTriggered = false " +
+            "AND a.productName IN :productNames AND MOD(a.id, :shardCount) IN :shards")
+    List<PriceAlert> findUntriggeredInShardsOnProducts(@Param("shardCount") int shardCount,
+                                                       @Param("shards") Collection<Integer> shards,
+                                                       @Param("productNames") Collection<String> productNames);
+
+    /**
+     * Loads the given alerts that are not triggered yet together with their users, in a single query.
+     * The alert rows stay locked until the transaction ends, so an alert evaluated by several instances
+     * at once is triggered and notified by only one of them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM PriceAlert a JOIN FETCH a.user WHERE a.id IN :ids AND a.alertTriggered = false")
+    List<PriceAlert> findUntriggeredWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks the given alerts as triggered in a single statement.
+     *
+     * @return the number of alerts that were not triggered before
+     */
+    @Modifying
+    @Query("UPDATE PriceAlert a SET a.alertTriggered = true WHERE a.id IN :ids AND a.alertTriggered = false")
+    int markTriggered(@Param("ids") Collection<Long> ids);
 }
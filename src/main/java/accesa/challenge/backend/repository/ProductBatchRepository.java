@@ -0,0 +1,267 @@
+package accesa.challenge.backend.repository;
+
+import accesa.challenge.backend.domain.entity.Product;
+import accesa.challenge.backend.domain.entity.ProductDiscount;
+import accesa.challenge.backend.utils.UnitPriceCalculator;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * JDBC based repository used by the import pipeline to write products and discounts in batches,
+ * bypassing the per-entity persist and flush done by Spring Data.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBatchRepository {
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT IGNORE INTO products (product_id, creation_date, supermarket, product_name, product_category, " +
+                    "brand, package_quantity, package_unit, price, currency, normalized_quantity, normalized_unit, " +
+                    "price_per_unit) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_PRODUCT_SQL =
+            "INSERT INTO products (product_id, creation_date, supermarket, product_name, product_category, " +
+                    "brand, package_quantity, package_unit, price, currency, normalized_quantity, normalized_unit, " +
+                    "price_per_unit) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE product_name = VALUES(product_name), product_category = VALUES(product_category), " +
+                    "brand = VALUES(brand), package_quantity = VALUES(package_quantity), package_unit = VALUES(package_unit), " +
+                    "price = VALUES(price), currency = VALUES(currency), normalized_quantity = VALUES(normalized_quantity), " +
+                    "normalized_unit = VALUES(normalized_unit), price_per_unit = VALUES(price_per_unit)";
+    private static final String DELETE_DISCOUNTS_SQL =
+            "DELETE FROM product_discounts WHERE supermarket = ? AND creation_date = ?";
+    private static final String INSERT_DISCOUNT_SQL =
+            "INSERT INTO product_discounts (product_id, creation_date, supermarket, discount_percentage, " +
+                    "from_date, to_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CURRENT_PRICE_COLUMNS =
+            "product_id, supermarket, snapshot_date, product_name, product_category, brand, package_quantity, " +
+                    "package_unit, currency, normalized_unit, price, price_per_unit, discount_percentage, final_price, " +
+                    "final_price_per_unit";
+    /**
+     * Replaces the current price of a product only with a snapshot that is at least as recent.
+     * A newer snapshot resets the discount, which is folded in again when its discounts are imported;
+     * a new version of the same snapshot keeps it. The snapshot date is assigned last, so the conditions
+     * compare against the stored date.
+     */
+    private static final String UPSERT_CURRENT_PRICE_SQL =
+            "INSERT INTO current_prices (" + CURRENT_PRICE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    String.join(", ", Stream.of("product_name", "product_category", "brand", "package_quantity",
+                                    "package_unit", "currency", "normalized_unit", "price", "price_per_unit")
+                            .map(column -> column + " = CASE WHEN VALUES(snapshot_date) >= snapshot_date THEN VALUES(" + column + ") ELSE " + column + " END")
+                            .toList()) + ", " +
+                    "discount_percentage = CASE WHEN VALUES(snapshot_date) > snapshot_date THEN 0 ELSE discount_percentage END, " +
+                    "final_price = CASE WHEN VALUES(snapshot_date) > snapshot_date THEN VALUES(price) " +
+                    "WHEN VALUES(snapshot_date) = snapshot_date THEN VALUES(price) * (1 - discount_percentage / 100) ELSE final_price END, " +
+                    "final_price_per_unit = CASE WHEN VALUES(snapshot_date) > snapshot_date THEN VALUES(price_per_unit) " +
+                    "WHEN VALUES(snapshot_date) = snapshot_date THEN VALUES(price_per_unit) * (1 - discount_percentage / 100) " +
+                    "ELSE final_price_per_unit END, " +
+                    "snapshot_date = GREATEST(snapshot_date, VALUES(snapshot_date))";
+    private static final String FOLD_DISCOUNT_SQL =
+            "UPDATE current_prices SET discount_percentage = ?, final_price = price * ?, " +
+                    "final_price_per_unit = price_per_unit * ? " +
+                    "WHERE product_id = ? AND supermarket = ? AND snapshot_date = ? AND discount_percentage < ?";
+    private static final String REBUILD_CURRENT_PRICES_SQL =
+            "INSERT IGNORE INTO current_prices (" + CURRENT_PRICE_COLUMNS + ") " +
+                    "SELECT p.product_id, p.supermarket, p.creation_date, p.product_name, p.product_category, p.brand, " +
+                    "p.package_quantity, p.package_unit, p.currency, p.normalized_unit, p.price, p.price_per_unit, 0, " +
+                    "p.price, p.price_per_unit FROM products p " +
+                    "JOIN (SELECT product_id, supermarket, MAX(creation_date) AS creation_date FROM products " +
+                    "GROUP BY product_id, supermarket) latest ON p.product_id = latest.product_id " +
+                    "AND p.supermarket = latest.supermarket AND p.creation_date = latest.creation_date";
+    private static final String REFRESH_CURRENT_DISCOUNTS_SQL =
+            "UPDATE current_prices c SET discount_percentage = COALESCE((SELECT MAX(d.discount_percentage) " +
+                    "FROM product_discounts d WHERE d.product_id = c.product_id AND d.supermarket = c.supermarket " +
+                    "AND d.creation_date = c.snapshot_date AND d.from_date <= ? AND d.to_date >= ?), 0)";
+    private static final String APPLY_CURRENT_DISCOUNTS_SQL =
+            "UPDATE current_prices SET final_price = price * (1 - discount_percentage / 100), " +
+                    "final_price_per_unit = price_per_unit * (1 - discount_percentage / 100)";
+
+    private static final String BACKFILL_UNIT_PRICES_SQL = buildBackfillUnitPricesSql();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given products using JDBC batches, in a single transaction.
+     * Rows whose primary key already exists are either ignored or overwritten.
+     * The current prices of the products are replaced in the same transaction when the products are the latest snapshot.
+     *
+     * @param products        the products to insert
+     * @param batchSize       the number of rows sent to the database in one JDBC batch
+     * @param replaceExisting whether existing rows with the same key should be overwritten
+     * @return the number of JDBC batches executed
+     */
+    @Transactional
+    public int insertProducts(List<Product> products, int batchSize, boolean replaceExisting) {
+        String sql = replaceExisting ? UPSERT_PRODUCT_SQL : INSERT_PRODUCT_SQL;
+        int[][] result = jdbcTemplate.batchUpdate(sql, products, batchSize, (ps, product) -> {
+            ps.setString(1, product.getProductId().getProductId());
+            ps.setDate(2, Date.valueOf(product.getProductId().getCreationDate()));
+            ps.setString(3, product.getProductId().getSupermarket());
+            ps.setString(4, product.getProductName());
+            ps.setString(5, product.getProductCategory());
+            ps.setString(6, product.getBrand());
+            ps.setDouble(7, product.getPackageQuantity());
+            ps.setString(8, product.getPackageUnit());
+            ps.setDouble(9, product.getPrice());
+            ps.setString(10, product.getCurrency());
+            ps.setObject(11, product.getNormalizedQuantity(), Types.DOUBLE);
+            ps.setString(12, product.getNormalizedUnit());
+            ps.setObject(13, product.getPricePerUnit(), Types.DOUBLE);
+        });
+        jdbcTemplate.batchUpdate(UPSERT_CURRENT_PRICE_SQL, products, batchSize, (ps, product) -> {
+            ps.setString(1, product.getProductId().getProductId());
+            ps.setString(2, product.getProductId().getSupermarket());
+            ps.setDate(3, Date.valueOf(product.getProductId().getCreationDate()));
+            ps.setString(4, product.getProductName());
+            ps.setString(5, product.getProductCategory());
+            ps.setString(6, product.getBrand());
+            ps.setDouble(7, product.getPackageQuantity());
+            ps.setString(8, product.getPackageUnit());
+            ps.setString(9, product.getCurrency());
+            ps.setString(10, product.getNormalizedUnit());
+            ps.setDouble(11, product.getPrice());
+            ps.setObject(12, product.getPricePerUnit(), Types.DOUBLE);
+            ps.setDouble(13, product.getPrice());
+            ps.setObject(14, product.getPricePerUnit(), Types.DOUBLE);
+        });
+        return result.length;
+    }
+
+    /**
+     * Inserts the given discounts using JDBC batches, in a single transaction.
+     * The creation date of discounts that do not have one is generated the same way
+     * as when the entity is persisted through JPA, and the generated IDs are set on the discounts.
+     * Discounts active today are folded into the current prices in the same transaction.
+     *
+     * @param discounts the discounts to insert, each referencing an existing product
+     * @param batchSize the number of rows sent to the database in one JDBC batch
+     * @return the number of JDBC batches executed
+     */
+    @Transactional
+    public int insertDiscounts(List<ProductDiscount> discounts, int batchSize) {
+        int batches = 0;
+        for (int from = 0; from < discounts.size(); from += batchSize, batches++) {
+            List<ProductDiscount> batch = discounts.subList(from, Math.min(from + batchSize, discounts.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_DISCOUNT_SQL, new String[]{"discount_id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ProductDiscount discount = batch.get(i);
+                            if (discount.getCreatedAt() == null) {
+                                discount.setCreatedAt(ProductDiscount.generateCreatedAt(discount.getDiscountFromDate()));
+                            }
+                            ps.setString(1, discount.getProduct().getProductId().getProductId());
+                            ps.setDate(2, Date.valueOf(discount.getProduct().getProductId().getCreationDate()));
+                            ps.setString(3, discount.getProduct().getProductId().getSupermarket());
+                            ps.setDouble(4, discount.getDiscountPercentage());
+                            ps.setDate(5, Date.valueOf(discount.getDiscountFromDate()));
+                            ps.setDate(6, Date.valueOf(discount.getDiscountToDate()));
+                            ps.setDate(7, Date.valueOf(discount.getCreatedAt()));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keyHolder);
+
+            // The key column is named differently by each driver, so the single value of each key row is taken
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < batch.size() && i < keys.size(); i++) {
+                batch.get(i).setDiscountId(((Number) keys.get(i).values().iterator().next()).intValue());
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        List<ProductDiscount> activeDiscounts = discounts.stream()
+                .filter(d -> !d.getDiscountFromDate().isAfter(today) && !d.getDiscountToDate().isBefore(today))
+                .toList();
+        jdbcTemplate.batchUpdate(FOLD_DISCOUNT_SQL, activeDiscounts, batchSize, (ps, discount) -> {
+            double priceRatio = 1 - discount.getDiscountPercentage() / 100.0;
+            ps.setDouble(1, discount.getDiscountPercentage());
+            ps.setDouble(2, priceRatio);
+            ps.setDouble(3, priceRatio);
+            ps.setString(4, discount.getProduct().getProductId().getProductId());
+            ps.setString(5, discount.getProduct().getProductId().getSupermarket());
+            ps.setDate(6, Date.valueOf(discount.getProduct().getProductId().getCreationDate()));
+            ps.setDouble(7, discount.getDiscountPercentage());
+        });
+        return batches;
+    }
+
+    /**
+     * Deletes the discounts attached to the product snapshot of a supermarket and date.
+     *
+     * @param supermarket  the supermarket of the snapshot
+     * @param creationDate the date of the snapshot
+     * @return the number of deleted discounts
+     */
+    @Transactional
+    public int deleteDiscounts(String supermarket, LocalDate creationDate) {
+        return jdbcTemplate.update(DELETE_DISCOUNTS_SQL, supermarket, Date.valueOf(creationDate));
+    }
+
+    /**
+     * Fills the current prices from the latest snapshot of every product, with the discounts active on the given date.
+     * Expected to run on an empty current prices table.
+     *
+     * @param date the date on which the folded discounts must be active
+     * @return the number of current prices inserted
+     */
+    @Transactional
+    public int rebuildCurrentPrices(LocalDate date) {
+        int rows = jdbcTemplate.update(REBUILD_CURRENT_PRICES_SQL);
+        refreshCurrentDiscounts(null, date);
+        return rows;
+    }
+
+    /**
+     * Recomputes the discount folded into the current prices as the best discount of their snapshot
+     * that is active on the given date.
+     *
+     * @param supermarket the supermarket whose current prices are refreshed, or null for all of them
+     * @param date        the date on which the discounts must be active
+     */
+    @Transactional
+    public void refreshCurrentDiscounts(String supermarket, LocalDate date) {
+        if (supermarket == null) {
+            jdbcTemplate.update(REFRESH_CURRENT_DISCOUNTS_SQL, Date.valueOf(date), Date.valueOf(date));
+            jdbcTemplate.update(APPLY_CURRENT_DISCOUNTS_SQL);
+        } else {
+            jdbcTemplate.update(REFRESH_CURRENT_DISCOUNTS_SQL + " WHERE c.supermarket = ?", Date.valueOf(date), Date.valueOf(date), supermarket);
+            jdbcTemplate.update(APPLY_CURRENT_DISCOUNTS_SQL + " WHERE supermarket = ?", supermarket);
+        }
+    }
+
+    /**
+     * Computes the normalized quantity, unit and price per unit of the products that do not have them yet,
+     * such as rows imported before these columns were added. Rows with an unknown unit are left unchanged.
+     *
+     * @return the number of updated products
+     */
+    @Transactional
+    public int backfillUnitPrices() {
+        return jdbcTemplate.update(BACKFILL_UNIT_PRICES_SQL);
+    }
+
+    private static String buildBackfillUnitPricesSql() {
+        String[] expressions = UnitPriceCalculator.getUnitPriceSqlExpressions();
+        return "UPDATE products SET normalized_quantity = " + expressions[0] + ", normalized_unit = " + expressions[1] +
+                ", price_per_unit = " + expressions[2] +
+                " WHERE price_per_unit IS NULL AND package_quantity > 0 AND price >= 0 AND " + expressions[1] + " IS NOT NULL";
+    }
+}
@@ -3,13 +3,61 @@ package accesa.challenge.backend.repository;
 import accesa.challenge.backend.domain.entity.ProductDiscount;
 import accesa.challenge.backend.domain.entity.ProductId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductDiscountRepository extends JpaRepository<ProductDiscount, ProductId> {
     boolean existsById(@NonNull ProductId productId);
     List<ProductDiscount> findByProductProductName(String productName);
+
+    @Query("SELECT d FROM ProductDiscount d JOIN FETCH d.product")
+    List<ProductDiscount> findAllWithProduct();
+
+    /**
+     * Returns the discounts of the given products that are active at some point between the two dates.
+     */
+    @Query("SELECT d FROM ProductDiscount d JOIN FETCH d.product p " +
+            "WHERE p.productId.productId IN :productIds AND p.productId.supermarket IN :supermarkets " +
+            "AND d.discountFromDate <= :toDate AND d.discountToDate >= :fromDate")
+    List<ProductDiscount> findActiveBetween(@Param("productIds") Collection<String> productIds,
+                                            @Param("supermarkets") Collection<String> supermarkets,
+                                            @Param("fromDate") LocalDate fromDate,
+                                            @Param("toDate") LocalDate toDate);
+
+    /**
+     * Returns the highest discount active on the given date of every product of a supermarket's snapshot,
+     * as rows of {productId, discountPercentage}.
+     */
+    @Query("SELECT p.productId.productId, MAX(d.discountPercentage) FROM ProductDiscount d JOIN d.product p " +
+            "WHERE p.productId.supermarket = :supermarket AND p.productId.creationDate = :creationDate " +
+            "AND d.discountFromDate <= :date AND d.discountToDate >= :date " +
+            "GROUP BY p.productId.productId")
+    List<Object[]> findActiveDiscountPercentages(@Param("supermarket") String supermarket,
+                                                 @Param("creationDate") LocalDate creationDate,
+                                                 @Param("date") LocalDate date);
+
+    /**
+     * Returns the highest discount of every product name, brand, category and supermarket
+     * as rows of {productName, brand, productCategory, supermarket, discountPercentage}.
+     */
+    @Query("SELECT p.productName, p.brand, p.productCategory, p.productId.supermarket, MAX(d.discountPercentage) " +
+            "FROM ProductDiscount d JOIN d.product p " +
+            "GROUP BY p.productName, p.brand, p.productCategory, p.productId.supermarket")
+    List<Object[]> findBestDiscountsPerStore();
+
+    /**
+     * Same as {@link #findBestDiscountsPerStore()}, restricted to discounts that did not end before the given date.
+     */
+    @Query("SELECT p.productName, p.brand, p.productCategory, p.productId.supermarket, MAX(d.discountPercentage) " +
+            "FROM ProductDiscount d JOIN d.product p " +
+            "WHERE d.discountToDate >= :date " +
+            "GROUP BY p.productName, p.brand, p.productCategory, p.productId.supermarket")
+    List<Object[]> findBestDiscountsPerStoreNotEndedBefore(@Param("date") LocalDate date);
 }
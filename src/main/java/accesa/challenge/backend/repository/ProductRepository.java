@@ -2,15 +2,149 @@ package accesa.challenge.backend.repository;
 
 import accesa.challenge.backend.domain.entity.Product;
 import accesa.challenge.backend.domain.entity.ProductId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.lang.NonNull;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, ProductId> {
     boolean existsById(@NonNull ProductId productId);
     boolean existsProductByProductName(String productName);
     List<Product> findByProductName(String productName);
+    List<Product> findByProductIdSupermarketAndProductIdCreationDate(String supermarket, LocalDate creationDate);
+
+    /**
+     * Returns the distinct (productId, supermarket) keys of the products matching the optional filters
+     * that have a snapshot on or before the given date, ordered by supermarket and product ID.
+     */
+    @Query("SELECT DISTINCT p.productId.productId, p.productId.supermarket FROM Product p " +
+            "WHERE (:store IS NULL OR p.productId.supermarket = :store) " +
+            "AND (:category IS NULL OR p.productCategory = :category) " +
+            "AND (:brand IS NULL OR p.brand = :brand) " +
+            "AND p.productId.creationDate <= :toDate " +
+            "ORDER BY p.productId.supermarket, p.productId.productId")
+    Slice<Object[]> findProductKeysForPriceHistory(@Param("store") String store,
+                                                   @Param("category") String category,
+                                                   @Param("brand") String brand,
+                                                   @Param("toDate") LocalDate toDate,
+                                                   Pageable pageable);
+
+    /**
+     * Returns the next keys of {@link #findProductKeysForPriceHistory} after the given (supermarket, productId) key,
+     * or from the start when the key is null. Paging by the last key read instead of an offset keeps each query
+     * as cheap as the first, and does not skip or repeat products when rows are imported in between.
+     */
+    @Query("SELECT DISTINCT p.productId.productId, p.productId.supermarket FROM Product p " +
+            "WHERE (:store IS NULL OR p.productId.supermarket = :store) " +
+            "AND (:category IS NULL OR p.productCategory = :category) " +
+            "AND (:brand IS NULL OR p.brand = :brand) " +
+            "AND p.productId.creationDate <= :toDate " +
+            "AND (:afterSupermarket IS NULL OR p.productId.supermarket > :afterSupermarket " +
+            "OR (p.productId.supermarket = :afterSupermarket AND p.productId.productId > :afterProductId)) " +
+            "ORDER BY p.productId.supermarket, p.productId.productId")
+    Slice<Object[]> findProductKeysForPriceHistoryAfter(@Param("store") String store,
+                                                        @Param("category") String category,
+                                                        @Param("brand") String brand,
+                                                        @Param("toDate") LocalDate toDate,
+                                                        @Param("afterSupermarket") String afterSupermarket,
+                                                        @Param("afterProductId") String afterProductId,
+                                                        Pageable pageable);
+
+    /**
+     * Returns, for each of the given products, the date of its latest snapshot on or before the given date.
+     */
+    @Query("SELECT MAX(p.productId.creationDate) FROM Product p " +
+            "WHERE p.productId.productId IN :productIds AND p.productId.supermarket IN :supermarkets " +
+            "AND (:category IS NULL OR p.productCategory = :category) " +
+            "AND (:brand IS NULL OR p.brand = :brand) " +
+            "AND p.productId.creationDate <= :date " +
+            "GROUP BY p.productId.productId, p.productId.supermarket")
+    List<LocalDate> findLatestSnapshotDates(@Param("productIds") Collection<String> productIds,
+                                            @Param("supermarkets") Collection<String> supermarkets,
+                                            @Param("category") String category,
+                                            @Param("brand") String brand,
+                                            @Param("date") LocalDate date);
+
+    @Query("SELECT p FROM Product p " +
+            "WHERE p.productId.productId IN :productIds AND p.productId.supermarket IN :supermarkets " +
+            "AND (:category IS NULL OR p.productCategory = :category) " +
+            "AND (:brand IS NULL OR p.brand = :brand) " +
+            "AND p.productId.creationDate BETWEEN :fromDate AND :toDate")
+    List<Product> findSnapshots(@Param("productIds") Collection<String> productIds,
+                                @Param("supermarkets") Collection<String> supermarkets,
+                                @Param("category") String category,
+                                @Param("brand") String brand,
+                                @Param("fromDate") LocalDate fromDate,
+                                @Param("toDate") LocalDate toDate);
+
+    /**
+     * Returns the snapshots of the given products in the date range that have a known unit price,
+     * cheapest per unit first.
+     */
+    @Query("SELECT p FROM Product p " +
+            "WHERE p.productId.productId IN :productIds AND p.productId.supermarket IN :supermarkets " +
+            "AND p.productId.creationDate BETWEEN :fromDate AND :toDate " +
+            "AND p.pricePerUnit IS NOT NULL " +
+            "ORDER BY p.pricePerUnit")
+    List<Product> findSnapshotsOrderByPricePerUnit(@Param("productIds") Collection<String> productIds,
+                                                   @Param("supermarkets") Collection<String> supermarkets,
+                                                   @Param("fromDate") LocalDate fromDate,
+                                                   @Param("toDate") LocalDate toDate);
+
+    /**
+     * Returns the date of the latest snapshot on or before the given date of every supermarket,
+     * as rows of {supermarket, creationDate}.
+     */
+    @Query("SELECT p.productId.supermarket, MAX(p.productId.creationDate) FROM Product p " +
+            "WHERE (:store IS NULL OR p.productId.supermarket = :store) " +
+            "AND p.productId.creationDate <= :date " +
+            "GROUP BY p.productId.supermarket")
+    List<Object[]> findLatestSnapshotDatePerStore(@Param("store") String store, @Param("date") LocalDate date);
+
+    /**
+     * Streams the products of a supermarket's snapshot that have a known unit price, as rows of
+     * {productId, productName, brand, productCategory, packageQuantity, packageUnit, price, normalizedUnit, pricePerUnit}.
+     * Rows are fetched from the database in chunks and are not attached to the persistence context,
+     * so the stream must be consumed inside a transaction but does not hold the whole snapshot in memory.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.productId.productId, p.productName, p.brand, p.productCategory, p.packageQuantity, p.packageUnit, " +
+            "p.price, p.normalizedUnit, p.pricePerUnit FROM Product p " +
+            "WHERE p.productId.supermarket = :store AND p.productId.creationDate = :date " +
+            "AND (:category IS NULL OR p.productCategory = :category) " +
+            "AND (:unit IS NULL OR p.normalizedUnit = :unit) " +
+            "AND p.pricePerUnit IS NOT NULL")
+    Stream<Object[]> streamUnitPrices(@Param("store") String store,
+                                      @Param("date") LocalDate date,
+                                      @Param("category") String category,
+                                      @Param("unit") String unit);
+
+    /**
+     * Returns the distinct (productName, productId, supermarket) triples of all products.
+     */
+    @Query("SELECT DISTINCT p.productName, p.productId.productId, p.productId.supermarket FROM Product p")
+    List<Object[]> findProductNameKeys();
+
+    @Query("SELECT DISTINCT p.productName FROM Product p " +
+            "WHERE p.productId.supermarket = :supermarket AND p.productId.creationDate = :creationDate")
+    List<String> findProductNamesBySupermarketAndCreationDate(@Param("supermarket") String supermarket,
+                                                              @Param("creationDate") LocalDate creationDate);
+
+    @Query("SELECT p.productId.productId FROM Product p " +
+            "WHERE p.productId.supermarket = :supermarket AND p.productId.creationDate = :creationDate")
+    Set<String> findProductIdsBySupermarketAndCreationDate(@Param("supermarket") String supermarket,
+                                                           @Param("creationDate") LocalDate creationDate);
 }
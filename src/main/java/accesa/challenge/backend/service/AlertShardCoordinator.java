@@ -0,0 +1,110 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.AlertEvaluatorNode;
+import accesa.challenge.backend.repository.AlertEvaluatorNodeRepository;
+import accesa.challenge.backend.repository.AlertShardLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the price alerts between the running instances. Alerts are hashed by ID into a fixed number of shards,
+ * and each instance leases its share of them in the {@code alert_shard_leases} table.
+ * Every instance sends a heartbeat on each claim; the number of live instances gives the share of each one,
+ * so an instance that joins gets shards released by the others, and the shards of an instance that stops
+ * are claimed again once their lease expires.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlertShardCoordinator {
+    private final AlertShardLeaseRepository alertShardLeaseRepository;
+    private final AlertEvaluatorNodeRepository alertEvaluatorNodeRepository;
+
+    @Getter
+    @Value("${alerts.sharding.shard-count:16}")
+    private int shardCount;
+
+    @Value("${alerts.sharding.lease-seconds:30}")
+    private long leaseSeconds;
+
+    @Getter
+    @Value("${alerts.sharding.node-id:}")
+    private String nodeId;
+
+    private volatile boolean shardsCreated;
+    private List<Integer> ownedShards = List.of();
+
+    @PostConstruct
+    public void init() throws UnknownHostException {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = InetAddress.getLocalHost().getHostName() + "-" + ProcessHandle.current().pid();
+        }
+    }
+
+    /**
+     * Renews the leases of this instance and brings the number of shards it owns to its share,
+     * releasing the extra shards or claiming free and expired ones.
+     * Runs in its own transaction so the claimed shards are visible to the other instances right away.
+     *
+     * @return the shards owned by this instance until the next claim
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public synchronized List<Integer> claimShards() {
+        if (!shardsCreated) {
+            for (int shardId = 0; shardId < shardCount; shardId++) {
+                alertShardLeaseRepository.insertShardIfAbsent(shardId);
+            }
+            shardsCreated = true;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        alertEvaluatorNodeRepository.save(new AlertEvaluatorNode(nodeId, now));
+        long liveNodes = Math.max(1, alertEvaluatorNodeRepository.countByLastSeenAfter(now.minusSeconds(leaseSeconds)));
+        int share = (int) ((shardCount + liveNodes - 1) / liveNodes);
+
+        alertShardLeaseRepository.renew(nodeId, leaseUntil);
+        List<Integer> owned = new ArrayList<>(alertShardLeaseRepository.findShardIdsByOwner(nodeId, shardCount));
+        if (owned.size() > share) {
+            List<Integer> released = owned.subList(share, owned.size());
+            alertShardLeaseRepository.release(nodeId, new ArrayList<>(released));
+            released.clear();
+        } else if (owned.size() < share) {
+            List<Integer> claimed = alertShardLeaseRepository.lockClaimableShards(shardCount, now, share - owned.size());
+            if (!claimed.isEmpty()) {
+                alertShardLeaseRepository.assign(claimed, nodeId, leaseUntil);
+                owned.addAll(claimed);
+            }
+        }
+
+        if (!owned.equals(ownedShards)) {
+            System.out.println("Alert evaluator " + nodeId + " owns shards " + owned + " of " + shardCount
+                    + " (" + liveNodes + " live nodes)");
+        }
+        ownedShards = List.copyOf(owned);
+        return ownedShards;
+    }
+
+    /**
+     * Hands the shards of this instance over to the others when it shuts down, without waiting for the leases to expire.
+     */
+    @PreDestroy
+    public void releaseShards() {
+        try {
+            alertShardLeaseRepository.releaseAll(nodeId);
+            alertEvaluatorNodeRepository.deleteById(nodeId);
+        } catch (RuntimeException e) {
+            System.err.println("Could not release the alert shards of " + nodeId + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.dto.ProductBestDiscountDTO;
+import accesa.challenge.backend.domain.entity.ProductDiscount;
+import accesa.challenge.backend.domain.event.DiscountsDeletedEvent;
+import accesa.challenge.backend.domain.event.DiscountsImportedEvent;
+import accesa.challenge.backend.repository.ProductDiscountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of the best discount of every product (name and brand), per supermarket.
+ * It is loaded with one aggregate query at startup and updated incrementally as discounts are imported,
+ * so reading the best discounts does not scan the discount table.
+ * When {@code discounts.best.active-only} is enabled, discounts that ended are evicted every night.
+ */
+@Component
+@RequiredArgsConstructor
+public class BestDiscountIndex {
+    private static final Comparator<ProductBestDiscountDTO> BY_DISCOUNT_DESC =
+            Comparator.comparing(ProductBestDiscountDTO::getDiscountPercentage).reversed()
+                    .thenComparing(ProductBestDiscountDTO::getProductName)
+                    .thenComparing(ProductBestDiscountDTO::getBrand);
+
+    private final ProductDiscountRepository productDiscountRepository;
+
+    @Value("${discounts.best.active-only:false}")
+    private boolean activeOnly;
+
+    /**
+     * Best discount per product key ({@code productName|brand}) and supermarket.
+     */
+    private Map<String, Map<String, ProductBestDiscountDTO>> bestDiscounts = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${discounts.best.refresh-cron:0 0 0 * * *}")
+    public synchronized void rebuild() {
+        List<Object[]> rows = activeOnly
+                ? productDiscountRepository.findBestDiscountsPerStoreNotEndedBefore(LocalDate.now())
+                : productDiscountRepository.findBestDiscountsPerStore();
+
+        bestDiscounts = new HashMap<>();
+        for (Object[] row : rows) {
+            merge(new ProductBestDiscountDTO((String) row[0], (String) row[1], (String) row[3], (String) row[2],
+                    ((Number) row[4]).doubleValue()));
+        }
+        snapshot = null;
+    }
+
+    @EventListener
+    public synchronized void onDiscountsImported(DiscountsImportedEvent event) {
+        LocalDate today = LocalDate.now();
+        for (ProductDiscount discount : event.getDiscounts()) {
+            if (discount.getDiscountPercentage() == null || (activeOnly && discount.getDiscountToDate().isBefore(today))) {
+                continue;
+            }
+            merge(new ProductBestDiscountDTO(
+                    discount.getProduct().getProductName(),
+                    discount.getProduct().getBrand(),
+                    discount.getProduct().getProductId().getSupermarket(),
+                    discount.getProduct().getProductCategory(),
+                    discount.getDiscountPercentage()));
+        }
+        snapshot = null;
+    }
+
+    @EventListener
+    public void onDiscountsDeleted(DiscountsDeletedEvent event) {
+        // A lower discount may now be the best one, which can only be found in the database
+        rebuild();
+    }
+
+    /**
+     * Returns the best discounts, highest first. Without a store filter, each product appears once
+     * with the supermarket offering its best discount; with a store filter, the best discount of
+     * each product in that supermarket is returned.
+     *
+     * @param limit    optional maximum number of results
+     * @param store    optional supermarket to restrict the results to
+     * @param category optional category to restrict the results to
+     * @return the matching best discounts
+     */
+    public List<ProductBestDiscountDTO> getBestDiscounts(Integer limit, String store, String category) {
+        Snapshot current = getSnapshot();
+        List<ProductBestDiscountDTO> candidates = store == null
+                ? current.overall()
+                : current.byStore().getOrDefault(store, List.of());
+        Predicate<ProductBestDiscountDTO> categoryFilter = category == null
+                ? d -> true
+                : d -> category.equals(d.getCategory());
+
+        return candidates.stream()
+                .filter(categoryFilter)
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .toList();
+    }
+
+    private void merge(ProductBestDiscountDTO candidate) {
+        String key = candidate.getProductName() + "|" + candidate.getBrand();
+        bestDiscounts.computeIfAbsent(key, k -> new HashMap<>())
+                .merge(candidate.getSupermarket(), candidate,
+                        (current, update) -> update.getDiscountPercentage() > current.getDiscountPercentage() ? update : current);
+    }
+
+    /**
+     * Returns the sorted views of the index, rebuilding them after the index changed.
+     */
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                List<ProductBestDiscountDTO> overall = new ArrayList<>();
+                Map<String, List<ProductBestDiscountDTO>> byStore = new HashMap<>();
+                for (Map<String, ProductBestDiscountDTO> perStore : bestDiscounts.values()) {
+                    perStore.values().stream().max(Comparator.comparing(ProductBestDiscountDTO::getDiscountPercentage))
+                            .ifPresent(overall::add);
+                    perStore.forEach((supermarket, discount) ->
+                            byStore.computeIfAbsent(supermarket, k -> new ArrayList<>()).add(discount));
+                }
+                overall.sort(BY_DISCOUNT_DESC);
+                byStore.values().forEach(list -> list.sort(BY_DISCOUNT_DESC));
+                snapshot = new Snapshot(List.copyOf(overall), Map.copyOf(byStore));
+            }
+            return snapshot;
+        }
+    }
+
+    private record Snapshot(List<ProductBestDiscountDTO> overall, Map<String, List<ProductBestDiscountDTO>> byStore) {
+    }
+}
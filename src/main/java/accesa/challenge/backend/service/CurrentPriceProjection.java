@@ -0,0 +1,57 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.event.ActiveDiscountsChangedEvent;
+import accesa.challenge.backend.domain.event.DiscountsDeletedEvent;
+import accesa.challenge.backend.repository.CurrentPriceRepository;
+import accesa.challenge.backend.repository.ProductBatchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the current prices projection in step with the time and with discount deletions.
+ * The import itself updates the projection while writing products and discounts; this component fills it
+ * on the first startup and refreshes the folded discounts of a supermarket when the discount timeline reports
+ * that some of its discounts started or ended, or when its discounts are replaced.
+ * Its listeners run ahead of the price alert evaluation, which reads the projection.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentPriceProjection {
+    private final CurrentPriceRepository currentPriceRepository;
+    private final ProductBatchRepository productBatchRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void initialize() {
+        if (currentPriceRepository.count() == 0) {
+            int rows = productBatchRepository.rebuildCurrentPrices(LocalDate.now());
+            if (rows > 0) {
+                System.out.println("Built current prices of " + rows + " products");
+            }
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void onActiveDiscountsChanged(ActiveDiscountsChangedEvent event) {
+        Set<String> supermarkets = new TreeSet<>();
+        event.getActivated().forEach(discount -> supermarkets.add(discount.getSupermarket()));
+        event.getExpired().forEach(discount -> supermarkets.add(discount.getSupermarket()));
+        for (String supermarket : supermarkets) {
+            productBatchRepository.refreshCurrentDiscounts(supermarket, LocalDate.now());
+        }
+    }
+
+    @EventListener
+    public void onDiscountsDeleted(DiscountsDeletedEvent event) {
+        productBatchRepository.refreshCurrentDiscounts(event.getSupermarket(), LocalDate.now());
+    }
+}
@@ -0,0 +1,212 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.dto.ProductActiveDiscountDTO;
+import accesa.challenge.backend.domain.dto.ProductNewDiscountDTO;
+import accesa.challenge.backend.domain.entity.ProductDiscount;
+import accesa.challenge.backend.domain.event.ActiveDiscountsChangedEvent;
+import accesa.challenge.backend.domain.event.DiscountsDeletedEvent;
+import accesa.challenge.backend.domain.event.DiscountsImportedEvent;
+import accesa.challenge.backend.repository.ProductDiscountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Tracks which discounts are active and which ones are new, so that reading them does not scan the discount table.
+ * The start and end days of the discounts that did not end yet are kept in a priority queue; every day the events
+ * that are due are applied to the active set, and an {@link ActiveDiscountsChangedEvent} is published with the delta
+ * once the lock is released. Discounts are tracked by their ID, so identical discounts of different rows stay apart.
+ * The new discounts are those added on the day their prices were fetched or the day before, which never changes
+ * after import, so they are collected once.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiscountTimeline {
+    private final ProductDiscountRepository productDiscountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final PriorityQueue<TimelineEvent> events = new PriorityQueue<>(Comparator.comparingLong(TimelineEvent::day));
+    /**
+     * Discounts that did not end yet, by discount ID; events of discounts that are no longer tracked are skipped.
+     */
+    private final Map<Integer, ProductActiveDiscountDTO> tracked = new HashMap<>();
+    private final Map<Integer, ProductActiveDiscountDTO> active = new LinkedHashMap<>();
+    private final List<ProductNewDiscountDTO> newDiscounts = new ArrayList<>();
+    private LocalDate today = LocalDate.now();
+
+    /**
+     * Read-only copies of the active and new discounts, rebuilt on the first read after a change.
+     */
+    private volatile List<ProductActiveDiscountDTO> activeView = List.of();
+    private volatile List<ProductNewDiscountDTO> newView = List.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        events.clear();
+        tracked.clear();
+        active.clear();
+        newDiscounts.clear();
+        today = LocalDate.now();
+        for (ProductDiscount discount : productDiscountRepository.findAllWithProduct()) {
+            add(discount);
+        }
+        invalidateViews();
+    }
+
+    @EventListener
+    public synchronized void onDiscountsImported(DiscountsImportedEvent event) {
+        for (ProductDiscount discount : event.getDiscounts()) {
+            add(discount);
+        }
+        invalidateViews();
+    }
+
+    @EventListener
+    public synchronized void onDiscountsDeleted(DiscountsDeletedEvent event) {
+        tracked.values().removeIf(d -> isFromSnapshot(d, event.getSupermarket(), event.getCreationDate()));
+        active.values().removeIf(d -> isFromSnapshot(d, event.getSupermarket(), event.getCreationDate()));
+        newDiscounts.removeIf(d -> event.getSupermarket().equals(d.getSupermarket())
+                && event.getCreationDate().equals(d.getProductFetchDate()));
+        invalidateViews();
+    }
+
+    /**
+     * Applies the start and end events that became due since the last run.
+     */
+    @Scheduled(cron = "${discounts.timeline.tick-cron:0 0 0 * * *}")
+    public void advance() {
+        List<ProductActiveDiscountDTO> activated = new ArrayList<>();
+        List<ProductActiveDiscountDTO> expired = new ArrayList<>();
+        synchronized (this) {
+            today = LocalDate.now();
+            while (!events.isEmpty() && events.peek().day() <= today.toEpochDay()) {
+                TimelineEvent event = events.poll();
+                ProductActiveDiscountDTO discount = tracked.get(event.discountId());
+                if (discount == null) {
+                    continue;
+                }
+                if (event.start()) {
+                    if (active.putIfAbsent(event.discountId(), discount) == null) {
+                        activated.add(discount);
+                    }
+                } else {
+                    tracked.remove(event.discountId());
+                    if (active.remove(event.discountId()) != null) {
+                        expired.add(discount);
+                    }
+                }
+            }
+            if (!activated.isEmpty() || !expired.isEmpty()) {
+                invalidateViews();
+            }
+        }
+
+        // Listeners run outside the lock, so they can read the timeline or take their own locks
+        if (!activated.isEmpty() || !expired.isEmpty()) {
+            eventPublisher.publishEvent(new ActiveDiscountsChangedEvent(activated, expired));
+        }
+    }
+
+    /**
+     * Returns the discounts active today.
+     *
+     * @param store optional supermarket to restrict the results to
+     * @return the active discounts
+     */
+    public List<ProductActiveDiscountDTO> getActiveDiscounts(String store) {
+        List<ProductActiveDiscountDTO> discounts = activeView;
+        if (discounts == null) {
+            synchronized (this) {
+                if (activeView == null) {
+                    activeView = List.copyOf(active.values());
+                }
+                discounts = activeView;
+            }
+        }
+        return store == null
+                ? discounts
+                : discounts.stream().filter(d -> store.equals(d.getSupermarket())).toList();
+    }
+
+    /**
+     * Returns the discounts added on the day their product prices were fetched or the day before.
+     *
+     * @return the new discounts
+     */
+    public List<ProductNewDiscountDTO> getNewDiscounts() {
+        List<ProductNewDiscountDTO> discounts = newView;
+        if (discounts == null) {
+            synchronized (this) {
+                if (newView == null) {
+                    newView = List.copyOf(newDiscounts);
+                }
+                discounts = newView;
+            }
+        }
+        return discounts;
+    }
+
+    private void add(ProductDiscount discount) {
+        if (discount.getProduct() == null || discount.getProduct().getProductId() == null) {
+            return;
+        }
+        if (isNew(discount)) {
+            newDiscounts.add(new ProductNewDiscountDTO(
+                    discount.getProduct().getProductName(),
+                    discount.getProduct().getBrand(),
+                    discount.getProduct().getProductId().getSupermarket(),
+                    discount.getDiscountPercentage(),
+                    discount.getCreatedAt(),
+                    discount.getProduct().getProductId().getCreationDate()));
+        }
+        if (discount.getDiscountId() == null || discount.getDiscountToDate().isBefore(today)) {
+            return;
+        }
+
+        ProductActiveDiscountDTO activeDiscount = ProductActiveDiscountDTO.builder()
+                .productId(discount.getProduct().getProductId().getProductId())
+                .productName(discount.getProduct().getProductName())
+                .brand(discount.getProduct().getBrand())
+                .supermarket(discount.getProduct().getProductId().getSupermarket())
+                .discountPercentage(discount.getDiscountPercentage())
+                .discountFromDate(discount.getDiscountFromDate())
+                .discountToDate(discount.getDiscountToDate())
+                .productFetchDate(discount.getProduct().getProductId().getCreationDate())
+                .build();
+        tracked.put(discount.getDiscountId(), activeDiscount);
+        if (discount.getDiscountFromDate().isAfter(today)) {
+            events.add(new TimelineEvent(discount.getDiscountFromDate().toEpochDay(), true, discount.getDiscountId()));
+        } else {
+            active.put(discount.getDiscountId(), activeDiscount);
+        }
+        events.add(new TimelineEvent(discount.getDiscountToDate().toEpochDay() + 1, false, discount.getDiscountId()));
+    }
+
+    private static boolean isNew(ProductDiscount discount) {
+        LocalDate productCreatedDate = discount.getProduct().getProductId().getCreationDate();
+        LocalDate discountCreatedDate = discount.getCreatedAt();
+        if (productCreatedDate == null || discountCreatedDate == null) {
+            return false;
+        }
+        return !discountCreatedDate.isBefore(productCreatedDate.minusDays(1))
+                && !discountCreatedDate.isAfter(productCreatedDate);
+    }
+
+    private static boolean isFromSnapshot(ProductActiveDiscountDTO discount, String supermarket, LocalDate creationDate) {
+        return supermarket.equals(discount.getSupermarket()) && creationDate.equals(discount.getProductFetchDate());
+    }
+
+    private void invalidateViews() {
+        activeView = null;
+        newView = null;
+    }
+
+    private record TimelineEvent(long day, boolean start, int discountId) {
+    }
+}
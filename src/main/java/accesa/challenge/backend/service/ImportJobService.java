@@ -0,0 +1,134 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.dto.ImportFileResultDTO;
+import accesa.challenge.backend.domain.dto.ImportJobDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final ImportService importService;
+    private final Executor importJobExecutor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Starts a background import of the CSV files and returns immediately.
+     * The import runs on the import job executor, so it does not hold a servlet thread.
+     *
+     * @param includeProducts  whether product files should be imported
+     * @param includeDiscounts whether discount files should be imported
+     * @return the state of the newly created job
+     */
+    public ImportJobDTO startImportJob(boolean includeProducts, boolean includeDiscounts) {
+        removeOldJobs();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+
+        importJobExecutor.execute(() -> {
+            job.startedAt = LocalDateTime.now();
+            job.status = ImportJobDTO.Status.RUNNING;
+            try {
+                importService.importCsvFiles(includeProducts, includeDiscounts, job);
+                job.status = job.errors.isEmpty() ? ImportJobDTO.Status.COMPLETED : ImportJobDTO.Status.FAILED;
+            } catch (Exception e) {
+                job.errors.add(e.getMessage());
+                job.status = ImportJobDTO.Status.FAILED;
+            } finally {
+                job.finishedAt = LocalDateTime.now();
+            }
+        });
+        return job.toDTO();
+    }
+
+    /**
+     * Retrieves the current state of an import job.
+     *
+     * @param jobId the ID returned when the job was started
+     * @return the job state, or empty if no job with this ID is known
+     */
+    public Optional<ImportJobDTO> getImportJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::toDTO);
+    }
+
+    private void removeOldJobs() {
+        List<ImportJob> finishedJobs = jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparing(job -> job.finishedAt))
+                .toList();
+        for (int i = 0; i < finishedJobs.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finishedJobs.get(i).id);
+        }
+    }
+
+    /**
+     * Mutable state of an import job, updated concurrently by the import workers.
+     */
+    private static class ImportJob implements ImportProgressListener {
+        private final String id;
+        private volatile ImportJobDTO.Status status = ImportJobDTO.Status.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile int totalFiles;
+        private final AtomicInteger filesDone = new AtomicInteger();
+        private final AtomicLong rowsProcessed = new AtomicLong();
+        private final AtomicLong rowsSkipped = new AtomicLong();
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+
+        private ImportJob(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public void onImportStarted(int totalFiles) {
+            this.totalFiles = totalFiles;
+        }
+
+        @Override
+        public void onRowsProcessed(int importedRows, int skippedRows) {
+            rowsProcessed.addAndGet(importedRows + skippedRows);
+            rowsSkipped.addAndGet(skippedRows);
+        }
+
+        @Override
+        public void onFileCompleted(ImportFileResultDTO result) {
+            filesDone.incrementAndGet();
+            if (!result.isSuccess()) {
+                errors.add(result.getFilename() + ": " + result.getError());
+            }
+        }
+
+        private ImportJobDTO toDTO() {
+            double rowsPerSecond = 0;
+            if (startedAt != null) {
+                LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+                double seconds = Math.max(Duration.between(startedAt, end).toMillis() / 1000.0, 0.001);
+                rowsPerSecond = rowsProcessed.get() / seconds;
+            }
+
+            return ImportJobDTO.builder()
+                    .id(id)
+                    .status(status)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .totalFiles(totalFiles)
+                    .filesDone(filesDone.get())
+                    .rowsProcessed(rowsProcessed.get())
+                    .rowsSkipped(rowsSkipped.get())
+                    .rowsPerSecond(rowsPerSecond)
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+}
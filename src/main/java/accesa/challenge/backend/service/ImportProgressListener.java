@@ -0,0 +1,27 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.dto.ImportFileResultDTO;
+
+/**
+ * Receives progress updates while CSV files are being imported.
+ * Methods may be called concurrently from the import worker threads.
+ */
+public interface ImportProgressListener {
+    ImportProgressListener NONE = new ImportProgressListener() {
+    };
+
+    default void onImportStarted(int totalFiles) {
+    }
+
+    /**
+     * Called every time a chunk of rows has been persisted, and once more when a file is finished.
+     *
+     * @param importedRows the number of rows written since the last call for the same file
+     * @param skippedRows  the number of rows skipped since the last call for the same file
+     */
+    default void onRowsProcessed(int importedRows, int skippedRows) {
+    }
+
+    default void onFileCompleted(ImportFileResultDTO result) {
+    }
+}
@@ -1,197 +1,484 @@
 package accesa.challenge.backend.service;
 
+import accesa.challenge.backend.domain.dto.ImportFileResultDTO;
+import accesa.challenge.backend.domain.entity.ImportLedgerEntry;
 import accesa.challenge.backend.domain.entity.Product;
 import accesa.challenge.backend.domain.entity.ProductDiscount;
 import accesa.challenge.backend.domain.entity.ProductId;
+import accesa.challenge.backend.domain.event.DiscountsDeletedEvent;
+import accesa.challenge.backend.domain.event.DiscountsImportedEvent;
+import accesa.challenge.backend.domain.event.ProductsImportedEvent;
 import accesa.challenge.backend.domain.exception.CustomException;
-import accesa.challenge.backend.repository.ProductDiscountRepository;
+import accesa.challenge.backend.repository.ImportLedgerRepository;
+import accesa.challenge.backend.repository.ProductBatchRepository;
 import accesa.challenge.backend.repository.ProductRepository;
-import com.opencsv.CSVParser;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
+import accesa.challenge.backend.utils.CsvRowCursor;
+import accesa.challenge.backend.utils.PriceFileParser;
+import accesa.challenge.backend.utils.UnitPriceCalculator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.function.BiConsumer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static accesa.challenge.backend.utils.FileDataExtractor.*;
 
 @Service
 @RequiredArgsConstructor
 public class ImportService {
+    private static final String DATA_FILES_PATTERN = "classpath:sample-data-files/*.csv";
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+
     private final ProductRepository productRepository;
-    private final ProductDiscountRepository productDiscountRepository;
+    private final ProductBatchRepository productBatchRepository;
+    private final ImportLedgerRepository importLedgerRepository;
+    private final Executor importExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Computes the unit prices of the products imported before the unit price columns existed.
+     * Runs before the other startup listeners, which read the unit prices.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillUnitPrices() {
+        int updatedRows = productBatchRepository.backfillUnitPrices();
+        if (updatedRows > 0) {
+            System.out.println("Computed unit prices of " + updatedRows + " existing products");
+        }
+    }
 
     /**
      * Reads all CSV files containing product data from the specified directory.
      * The files are expected to be in the classpath under "sample-data-files".
      *
-     * @return A list of filenames that were successfully imported.
+     * @return The import result of each product file.
      */
-    public List<String> readAllCsvFiles() {
-        return readCsvFiles("classpath:sample-data-files/*.csv", this::importProducts, true);
+    public List<ImportFileResultDTO> readAllCsvFiles() {
+        return importCsvFiles(true, false, ImportProgressListener.NONE);
     }
 
     /**
      * Reads all CSV files containing discount data from the specified directory.
      * The files are expected to be in the classpath under "sample-data-files".
      *
-     * @return A list of filenames that were successfully imported.
+     * @return The import result of each discount file.
+     */
+    public List<ImportFileResultDTO> readAllDiscountCsvFiles() {
+        return importCsvFiles(false, true, ImportProgressListener.NONE);
+    }
+
+    /**
+     * Reads all product and discount CSV files from the specified directory.
+     * For every supermarket and date, the product file is imported before the discount file,
+     * so that each discount finds the product it refers to.
+     *
+     * @return The import result of each file.
      */
-    public List<String> readAllDiscountCsvFiles() {
-        return readCsvFiles("classpath:sample-data-files/*discounts*.csv", this::importDiscounts, false);
+    public List<ImportFileResultDTO> readAllCsvFilesWithDiscounts() {
+        return importCsvFiles(true, true, ImportProgressListener.NONE);
     }
 
     /**
      * Imports product data from the given CSV data and filename.
+     * Kept as an adapter over the streaming import for callers that already hold the rows in memory.
      *
      * @param data     The CSV data as a list of string arrays.
      * @param filename The name of the CSV file.
      */
-    public void importProducts(List<String[]> data, String filename) {
+    public ImportFileResultDTO importProducts(List<String[]> data, String filename) {
+        return importProducts(CsvRowCursor.of(data.iterator()), filename, false, ImportProgressListener.NONE);
+    }
+
+    /**
+     * Imports product data from the given CSV rows and filename, consuming the rows one at a time.
+     * Existing product keys for the file's supermarket and date are loaded with a single query,
+     * then new rows are written in JDBC batches, one transaction per chunk of {@code batchSize} rows.
+     * When the file was modified since its last import, existing rows are overwritten instead.
+     * A {@link ProductsImportedEvent} is published after each committed chunk.
+     *
+     * @param rows     The cursor over the CSV rows, read lazily from the file.
+     * @param filename The name of the CSV file.
+     * @param modified Whether a previous version of the file was already imported.
+     * @param listener The listener notified after each persisted chunk.
+     * @return The import result for the file.
+     */
+    private ImportFileResultDTO importProducts(CsvRowCursor rows, String filename, boolean modified,
+                                               ImportProgressListener listener) {
         String supermarket = extractSupermarket(filename);
         LocalDate creationDate = extractCreationDate(filename);
 
-        for (int i = 0; i < data.size(); i++) {
-            String[] row = data.get(i);
-            if (row.length < 8) {
+        long startTime = System.nanoTime();
+        Set<String> existingProductIds = modified
+                ? new HashSet<>()
+                : productRepository.findProductIdsBySupermarketAndCreationDate(supermarket, creationDate);
+        List<Product> chunk = new ArrayList<>(batchSize);
+        int importedRows = 0;
+        int skippedRows = 0;
+        int reportedSkippedRows = 0;
+        int batches = 0;
+
+        for (int i = 0; rows.next(); i++) {
+            if (rows.columnCount() < 8) {
                 System.err.println("Row " + i + " in file " + filename + " has insufficient columns.");
+                skippedRows++;
                 continue;
             }
 
             try {
-                String productIdValue = row[0];
-                ProductId productId = new ProductId(productIdValue, creationDate, supermarket);
-
-                if (productRepository.existsById(productId)) {
+                String productIdValue = rows.getString(0);
+                if (!existingProductIds.add(productIdValue)) {
+                    skippedRows++;
                     continue; // Skip duplicate
                 }
 
-                Product product = mapRowToProduct(row, productId);
-                productRepository.save(product);
+                ProductId productId = new ProductId(productIdValue, creationDate, supermarket);
+                chunk.add(mapRowToProduct(rows, productId));
             } catch (Exception ex) {
-                // Skip invalid row
                 throw new CustomException("Failed to import row " + i + " in file " + filename, ex);
             }
+
+            if (chunk.size() >= batchSize) {
+                batches += productBatchRepository.insertProducts(chunk, batchSize, modified);
+                eventPublisher.publishEvent(new ProductsImportedEvent(List.copyOf(chunk)));
+                importedRows += chunk.size();
+                listener.onRowsProcessed(chunk.size(), skippedRows - reportedSkippedRows);
+                reportedSkippedRows = skippedRows;
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            batches += productBatchRepository.insertProducts(chunk, batchSize, modified);
+            eventPublisher.publishEvent(new ProductsImportedEvent(List.copyOf(chunk)));
+            importedRows += chunk.size();
         }
+        listener.onRowsProcessed(chunk.size(), skippedRows - reportedSkippedRows);
+
+        return buildImportResult(filename, importedRows, skippedRows, batches, startTime);
     }
 
     /**
      * Imports products discount data from the given CSV data and filename.
+     * The products of the file's supermarket and date are loaded once into an in-memory index,
+     * so each row is resolved without a query, and discounts are written in JDBC batches.
+     * A {@link DiscountsImportedEvent} is published after each committed chunk.
+     * The discounts of the file's supermarket and date are deleted first, so importing a file again,
+     * whether it was modified or an earlier import failed partway, replaces its discounts instead of duplicating them.
+     * Rows whose product is not imported yet are counted in {@code rowsWithoutProduct}.
      *
-     * @param data     The CSV data as a list of string arrays.
+     * @param rows     The cursor over the CSV rows, read lazily from the file.
      * @param filename The name of the CSV file.
+     * @param listener The listener notified after each persisted chunk.
+     * @return The import result for the file.
      */
-    private void importDiscounts(List<String[]> data, String filename) {
+    private ImportFileResultDTO importDiscounts(CsvRowCursor rows, String filename, ImportProgressListener listener) {
         String supermarket = extractSupermarket(filename);
         LocalDate creationDate = extractCreationDateDiscounts(filename);
 
-        for (int i = 0; i < data.size(); i++) {
-            String[] row = data.get(i);
-            if (row.length < 9) {
+        long startTime = System.nanoTime();
+        if (productBatchRepository.deleteDiscounts(supermarket, creationDate) > 0) {
+            eventPublisher.publishEvent(new DiscountsDeletedEvent(supermarket, creationDate));
+        }
+        Map<String, Product> productIndex = productRepository
+                .findByProductIdSupermarketAndProductIdCreationDate(supermarket, creationDate).stream()
+                .collect(Collectors.toMap(p -> p.getProductId().getProductId(), p -> p));
+        List<ProductDiscount> chunk = new ArrayList<>(batchSize);
+        int importedRows = 0;
+        int skippedRows = 0;
+        int rowsWithoutProduct = 0;
+        int reportedSkippedRows = 0;
+        int batches = 0;
+
+        for (int i = 0; rows.next(); i++) {
+            if (rows.columnCount() < 9) {
                 System.err.println("Row " + i + " in file " + filename + " has insufficient columns.");
+                skippedRows++;
                 continue;
             }
             try {
-                ProductDiscount discount = mapRowToProductDiscount(row, supermarket, creationDate);
-                if (discount != null) {
-                    productDiscountRepository.save(discount);
+                ProductDiscount discount = mapRowToProductDiscount(rows, productIndex);
+                if (discount == null) {
+                    skippedRows++;
+                    rowsWithoutProduct++;
+                    continue;
                 }
+                chunk.add(discount);
             } catch (Exception ex) {
                 throw new CustomException("Failed to import discount row " + i + " in file " + filename, ex);
             }
+
+            if (chunk.size() >= batchSize) {
+                batches += productBatchRepository.insertDiscounts(chunk, batchSize);
+                eventPublisher.publishEvent(new DiscountsImportedEvent(List.copyOf(chunk)));
+                importedRows += chunk.size();
+                listener.onRowsProcessed(chunk.size(), skippedRows - reportedSkippedRows);
+                reportedSkippedRows = skippedRows;
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            batches += productBatchRepository.insertDiscounts(chunk, batchSize);
+            eventPublisher.publishEvent(new DiscountsImportedEvent(List.copyOf(chunk)));
+            importedRows += chunk.size();
+        }
+        listener.onRowsProcessed(chunk.size(), skippedRows - reportedSkippedRows);
+
+        ImportFileResultDTO result = buildImportResult(filename, importedRows, skippedRows, batches, startTime);
+        result.setRowsWithoutProduct(rowsWithoutProduct);
+        return result;
+    }
+
+    /**
+     * Tells whether the file was imported, as recorded in the import ledger.
+     *
+     * @param filename The name of the CSV file.
+     * @return Whether the import ledger has an entry for the file.
+     */
+    public boolean isImported(String filename) {
+        return importLedgerRepository.findByFilename(filename).isPresent();
+    }
+
+    /**
+     * Imports the CSV files matching the data files pattern.
+     *
+     * @param includeProducts  Whether product files should be imported.
+     * @param includeDiscounts Whether discount files should be imported.
+     * @param listener         The listener notified of the import progress.
+     * @return The import result of each file.
+     */
+    public List<ImportFileResultDTO> importCsvFiles(boolean includeProducts, boolean includeDiscounts,
+                                                    ImportProgressListener listener) {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(DATA_FILES_PATTERN);
+        } catch (IOException e) {
+            throw new CustomException("Failed to list CSV files with pattern: " + DATA_FILES_PATTERN, e);
+        }
+
+        List<Resource> selectedResources = Arrays.stream(resources)
+                .filter(resource -> isDiscountFile(resource.getFilename()) ? includeDiscounts : includeProducts)
+                .toList();
+        return importCsvFiles(selectedResources, listener);
+    }
+
+    /**
+     * Imports the given product and discount CSV files in parallel on the import executor.
+     * Files are grouped by supermarket and date; the files of a group are imported sequentially,
+     * products first, while different groups run concurrently. A failing file, or one whose name does not
+     * follow the naming rules, is reported in its result and does not abort the import of the other files.
+     *
+     * @param resources The CSV files to import, named {@code <store>_<date>.csv} or {@code <store>_discounts_<date>.csv}.
+     * @param listener  The listener notified of the import progress.
+     * @return The import result of each file.
+     */
+    public List<ImportFileResultDTO> importCsvFiles(Collection<? extends Resource> resources,
+                                                    ImportProgressListener listener) {
+        Map<String, List<Resource>> filesByStoreAndDate = new TreeMap<>();
+        List<ImportFileResultDTO> misnamedResults = new ArrayList<>();
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (!isPriceFile(filename)) {
+                misnamedResults.add(ImportFileResultDTO.builder()
+                        .filename(filename)
+                        .success(false)
+                        .error("Filename does not match <store>_<yyyy-MM-dd>.csv or <store>_discounts_<yyyy-MM-dd>.csv")
+                        .build());
+                continue;
+            }
+            String groupKey = extractSupermarket(filename) + "|" + extractFileDate(filename);
+            filesByStoreAndDate.computeIfAbsent(groupKey, key -> new ArrayList<>()).add(resource);
+        }
+
+        int totalFiles = misnamedResults.size() + filesByStoreAndDate.values().stream().mapToInt(List::size).sum();
+        AtomicInteger filesDone = new AtomicInteger();
+        listener.onImportStarted(totalFiles);
+        for (ImportFileResultDTO result : misnamedResults) {
+            System.out.printf("[%d/%d] %s %s%n", filesDone.incrementAndGet(), totalFiles,
+                    result.getFilename(), getStatus(result));
+            listener.onFileCompleted(result);
         }
+
+        List<CompletableFuture<List<ImportFileResultDTO>>> tasks = filesByStoreAndDate.values().stream()
+                .map(group -> CompletableFuture.supplyAsync(() -> group.stream()
+                        .sorted(Comparator.comparing(resource -> isDiscountFile(resource.getFilename())))
+                        .map(resource -> {
+                            ImportFileResultDTO result = importCsvFile(resource, listener);
+                            System.out.printf("[%d/%d] %s %s%n", filesDone.incrementAndGet(), totalFiles,
+                                    result.getFilename(), getStatus(result));
+                            listener.onFileCompleted(result);
+                            return result;
+                        })
+                        .toList(), importExecutor))
+                .toList();
+
+        return Stream.concat(misnamedResults.stream(), tasks.stream().flatMap(task -> task.join().stream()))
+                .toList();
     }
 
     /**
-     * Reads CSV files from the specified pattern and applies the given import function.
+     * Imports a single product or discount CSV file, depending on its name, using the memory-mapped price file parser.
+     * Files whose size and content hash match their import ledger entry are skipped;
+     * the ledger entry is created or updated after a successful import. A discount file with rows whose product
+     * is not imported yet gets no ledger entry while its product file is missing from the ledger, so it is imported
+     * again once its products are there. Once the product file is recorded, such rows are only counted as skipped.
      *
-     * @param pattern        The pattern to match CSV files.
-     * @param importFunction The function to apply to the CSV data.
-     * @return A list of filenames that were successfully imported.
+     * @param resource The CSV file to import.
+     * @param listener The listener notified after each persisted chunk.
+     * @return The import result, holding the error message if the import failed.
      */
-    private List<String> readCsvFiles(String pattern, BiConsumer<List<String[]>, String> importFunction, boolean excludeDiscounts) {
-        List<String> importedFiles = new ArrayList<>();
+    private ImportFileResultDTO importCsvFile(Resource resource, ImportProgressListener listener) {
+        String filename = resource.getFilename();
         try {
-            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-            Resource[] resources = resolver.getResources(pattern);
+            Optional<ImportLedgerEntry> ledgerEntry = importLedgerRepository.findByFilename(filename);
+            long fileSize = resource.contentLength();
+            String contentHash = computeContentHash(resource);
+            if (ledgerEntry.isPresent()
+                    && ledgerEntry.get().getFileSize() == fileSize
+                    && ledgerEntry.get().getContentHash().equals(contentHash)) {
+                return ImportFileResultDTO.builder()
+                        .filename(filename)
+                        .success(true)
+                        .unchanged(true)
+                        .build();
+            }
 
-            CSVParser parser = new CSVParserBuilder().withSeparator(';').build();
+            ImportFileResultDTO result;
+            try (PriceFileParser parser = PriceFileParser.open(resource)) {
+                result = isDiscountFile(filename)
+                        ? importDiscounts(parser, filename, listener)
+                        : importProducts(parser, filename, ledgerEntry.isPresent(), listener);
+            }
 
-            for (Resource resource : resources) {
-                String filename = resource.getFilename();
-                if (excludeDiscounts && filename.contains("discounts")) {
-                    continue; // Skip discount files
-                }
-                try (Reader reader = new InputStreamReader(resource.getInputStream())) {
-                    CSVReader csvReader = new CSVReaderBuilder(reader)
-                            .withCSVParser(parser)
-                            .withSkipLines(1)
-                            .build();
-
-                    List<String[]> data = csvReader.readAll();
-                    importFunction.accept(data, filename);
-                    importedFiles.add(filename);
+            if (result.getRowsWithoutProduct() > 0) {
+                String productFilename = getProductFilename(filename);
+                if (!isImported(productFilename)) {
+                    System.out.println(result.getRowsWithoutProduct() + " discounts in " + filename
+                            + " refer to products not imported yet; the file will be imported again");
+                    return result;
                 }
+                System.out.println(result.getRowsWithoutProduct() + " discounts in " + filename
+                        + " refer to products missing from " + productFilename + "; skipped");
             }
+
+            ImportLedgerEntry entry = ledgerEntry.orElseGet(ImportLedgerEntry::new);
+            entry.setFilename(filename);
+            entry.setFileSize(fileSize);
+            entry.setContentHash(contentHash);
+            entry.setRowCount(result.getRowsImported() + result.getRowsSkipped());
+            entry.setImportedAt(LocalDateTime.now());
+            importLedgerRepository.save(entry);
+            return result;
         } catch (Exception e) {
-            throw new CustomException("Failed to import CSV files with pattern: " + pattern, e);
+            String message = e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage();
+            return ImportFileResultDTO.builder()
+                    .filename(filename)
+                    .success(false)
+                    .error(message)
+                    .build();
         }
-        return importedFiles;
+    }
+
+    /**
+     * Gets the name of the product file a discount file refers to, {@code <store>_<date>.csv}.
+     */
+    private String getProductFilename(String discountFilename) {
+        return extractSupermarket(discountFilename) + "_" + extractCreationDateDiscounts(discountFilename) + ".csv";
+    }
+
+    private String getStatus(ImportFileResultDTO result) {
+        if (!result.isSuccess()) {
+            return "failed: " + result.getError();
+        }
+        return result.isUnchanged() ? "unchanged, skipped" : "imported";
+    }
+
+    private String computeContentHash(Resource resource) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        try (InputStream inputStream = new DigestInputStream(resource.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private ImportFileResultDTO buildImportResult(String filename, int importedRows, int skippedRows, int batches, long startTime) {
+        long durationMillis = (System.nanoTime() - startTime) / 1_000_000;
+        double seconds = Math.max(durationMillis / 1000.0, 0.001);
+        System.out.printf("Imported %d rows (%d skipped) from %s in %d batches, %.0f rows/s%n",
+                importedRows, skippedRows, filename, batches, importedRows / seconds);
+        return ImportFileResultDTO.builder()
+                .filename(filename)
+                .success(true)
+                .rowsImported(importedRows)
+                .rowsSkipped(skippedRows)
+                .batches(batches)
+                .durationMillis(durationMillis)
+                .build();
     }
 
     /**
      * Parses a single row of product data from the CSV file.
      *
-     * @param row       The row data as a string array.
+     * @param row       The cursor positioned on the row.
      * @param productId The product ID to associate with this product.
-     * @return A Product object populated with the data from the row.
+     * @return A Product object populated with the data from the row and its normalized unit price.
      */
-    private Product mapRowToProduct(String[] row, ProductId productId) {
+    private Product mapRowToProduct(CsvRowCursor row, ProductId productId) {
         Product product = new Product();
         product.setProductId(productId);
-        product.setProductName(row[1]);
-        product.setProductCategory(row[2]);
-        product.setBrand(row[3]);
-        product.setPackageQuantity(Double.parseDouble(row[4]));
-        product.setPackageUnit(row[5]);
-        product.setPrice(Double.parseDouble(row[6]));
-        product.setCurrency(row[7]);
+        product.setProductName(row.getString(1));
+        product.setProductCategory(row.getInternedString(2));
+        product.setBrand(row.getInternedString(3));
+        product.setPackageQuantity(row.getDouble(4));
+        product.setPackageUnit(row.getInternedString(5));
+        product.setPrice(row.getDouble(6));
+        product.setCurrency(row.getInternedString(7));
+        UnitPriceCalculator.applyUnitPrice(product);
         return product;
     }
 
     /**
      * Parses a single row of discount data from the CSV file.
      *
-     * @param row          The row data as a string array.
-     * @param supermarket  The supermarket name.
-     * @param creationDate The date when the discount was created.
-     * @return A ProductDiscount object populated with the data from the row.
+     * @param row          The cursor positioned on the row.
+     * @param productIndex The products of the file's supermarket and date, keyed by product ID.
+     * @return A ProductDiscount object populated with the data from the row,
+     * or null if the product it refers to does not exist.
      */
-    private ProductDiscount mapRowToProductDiscount(String[] row, String supermarket, LocalDate creationDate) {
-        String productIdValue = row[0];
-        ProductId productId = new ProductId(productIdValue, creationDate, supermarket);
-
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isEmpty()) {
+    private ProductDiscount mapRowToProductDiscount(CsvRowCursor row, Map<String, Product> productIndex) {
+        Product product = productIndex.get(row.getString(0));
+        if (product == null) {
             // Product not found; skip this discount
             return null;
         }
 
         ProductDiscount discount = new ProductDiscount();
-        discount.setProduct(productOpt.get());
-        discount.setDiscountPercentage(Double.parseDouble(row[8]));
-        discount.setDiscountFromDate(LocalDate.parse(row[6]));
-        discount.setDiscountToDate(LocalDate.parse(row[7]));
+        discount.setProduct(product);
+        discount.setDiscountPercentage(row.getDouble(8));
+        discount.setDiscountFromDate(row.getDate(6));
+        discount.setDiscountToDate(row.getDate(7));
         return discount;
     }
 }
@@ -0,0 +1,69 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.AlertNotification;
+import accesa.challenge.backend.domain.event.NotificationsQueuedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the notification outbox on the notification executor, away from the transactions that queue notifications.
+ * A drain starts once notifications are committed to the outbox, and periodically to pick up the retries
+ * and the notifications queued by other instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+    private final NotificationOutbox notificationOutbox;
+    private final Executor notificationExecutor;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean drainRequested;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsQueued(NotificationsQueuedEvent event) {
+        requestDrain();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.dispatch-interval-millis:10000}")
+    public void requestDrain() {
+        drainRequested = true;
+        startDrain();
+    }
+
+    private void startDrain() {
+        if (draining.compareAndSet(false, true)) {
+            notificationExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (drainRequested) {
+                drainRequested = false;
+                List<AlertNotification> batch;
+                do {
+                    batch = notificationOutbox.claimBatch();
+                    if (!batch.isEmpty()) {
+                        notificationOutbox.deliver(batch);
+                        notificationOutbox.recordOutcome(batch);
+                    }
+                    // A full batch may have more due notifications behind it
+                } while (batch.size() >= notificationOutbox.getBatchSize());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Notification dispatch failed: " + e.getMessage());
+        } finally {
+            draining.set(false);
+            // A request made after the loop exited but before the flag was cleared found the drain still running
+            if (drainRequested) {
+                startDrain();
+            }
+        }
+    }
+}
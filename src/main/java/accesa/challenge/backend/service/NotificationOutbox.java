@@ -0,0 +1,148 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.AlertNotification;
+import accesa.challenge.backend.domain.event.NotificationsQueuedEvent;
+import accesa.challenge.backend.repository.AlertNotificationRepository;
+import jakarta.transaction.Transactional;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox of the alert notifications. Notifications are queued in the transaction that triggers their alerts,
+ * and delivered later in batches, one digest per user, with a growing delay between failed attempts.
+ * A batch is claimed, sent and recorded in three steps, so no row lock is held while a digest is being sent.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutbox {
+    private final AlertNotificationRepository alertNotificationRepository;
+    private final NotificationSender notificationSender;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Getter
+    @Value("${notifications.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notifications.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notifications.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    @Value("${notifications.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${notifications.retention-days:30}")
+    private int retentionDays;
+
+    /**
+     * Writes the notifications to the outbox in the current transaction.
+     */
+    @Transactional
+    public void queue(List<AlertNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (AlertNotification notification : notifications) {
+            notification.setStatus(AlertNotification.Status.PENDING);
+            notification.setNextAttemptAt(now);
+            notification.setCreatedAt(now);
+        }
+        alertNotificationRepository.saveAll(notifications);
+        eventPublisher.publishEvent(new NotificationsQueuedEvent(notifications.size()));
+    }
+
+    /**
+     * Claims the next batch of due notifications in a short transaction, marking them as sending until the lease
+     * ends, so that the locks are released before anything is sent.
+     *
+     * @return the claimed notifications
+     */
+    @Transactional
+    public List<AlertNotification> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AlertNotification> batch = alertNotificationRepository.lockDueNotifications(now, PageRequest.of(0, batchSize));
+        for (AlertNotification notification : batch) {
+            notification.setStatus(AlertNotification.Status.SENDING);
+            notification.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return batch;
+    }
+
+    /**
+     * Sends the claimed notifications, one digest per user, outside any transaction, and sets the outcome of each one
+     * on the given entities. A failed digest is retried after a delay that doubles with every attempt,
+     * until the attempts run out.
+     *
+     * @param batch notifications returned by {@link #claimBatch()}
+     */
+    public void deliver(List<AlertNotification> batch) {
+        Map<Integer, List<AlertNotification>> notificationsByUser = batch.stream()
+                .collect(Collectors.groupingBy(AlertNotification::getUserId, LinkedHashMap::new, Collectors.toList()));
+        for (List<AlertNotification> notifications : notificationsByUser.values()) {
+            try {
+                notificationSender.send(notifications.get(0).getRecipient(), notifications);
+                LocalDateTime sentAt = LocalDateTime.now();
+                for (AlertNotification notification : notifications) {
+                    notification.setAttempts(notification.getAttempts() + 1);
+                    notification.setStatus(AlertNotification.Status.SENT);
+                    notification.setSentAt(sentAt);
+                }
+            } catch (Exception e) {
+                LocalDateTime now = LocalDateTime.now();
+                for (AlertNotification notification : notifications) {
+                    scheduleRetry(notification, e, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the outcome set by {@link #deliver}. If this does not happen, the notifications are claimed and sent again
+     * once their lease ends.
+     */
+    @Transactional
+    public void recordOutcome(List<AlertNotification> batch) {
+        alertNotificationRepository.saveAll(batch);
+    }
+
+    /**
+     * Deletes the sent and failed notifications older than the retention period.
+     */
+    @Transactional
+    @Scheduled(cron = "${notifications.retention-cron:0 30 3 * * *}")
+    public void deleteExpired() {
+        int deleted = alertNotificationRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            System.out.println("Deleted " + deleted + " sent or failed notifications older than " + retentionDays + " days");
+        }
+    }
+
+    private void scheduleRetry(AlertNotification notification, Exception error, LocalDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+        String message = String.valueOf(error.getMessage());
+        notification.setAttempts(attempts);
+        notification.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (attempts >= maxAttempts) {
+            notification.setStatus(AlertNotification.Status.FAILED);
+            System.err.println("Giving up notification " + notification.getId() + " to " + notification.getRecipient()
+                    + " after " + attempts + " attempts: " + message);
+        } else {
+            notification.setStatus(AlertNotification.Status.PENDING);
+            notification.setNextAttemptAt(now.plusSeconds(retryDelaySeconds << Math.min(attempts - 1, 16)));
+        }
+    }
+}
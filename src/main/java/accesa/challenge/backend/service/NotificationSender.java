@@ -0,0 +1,22 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.AlertNotification;
+
+import java.util.List;
+
+/**
+ * Delivers alert notifications to a user.
+ * The dispatcher calls it once per user and batch, with every pending notification of that user,
+ * so an implementation can send them as a single digest.
+ */
+public interface NotificationSender {
+
+    /**
+     * Sends the notifications as one message.
+     *
+     * @param recipient     the email of the user
+     * @param notifications the notifications of the user, oldest first
+     * @throws Exception if the delivery failed; the notifications are retried later
+     */
+    void send(String recipient, List<AlertNotification> notifications) throws Exception;
+}
@@ -0,0 +1,166 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.AlertNotification;
+import accesa.challenge.backend.domain.entity.CurrentPrice;
+import accesa.challenge.backend.domain.entity.PriceAlert;
+import accesa.challenge.backend.repository.CurrentPriceRepository;
+import accesa.challenge.backend.repository.PriceAlertRepository;
+import accesa.challenge.backend.service.PriceAlertIndex.ClaimedAlert;
+import accesa.challenge.backend.utils.SqlStatementCounter;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Triggers the price alerts met by the current prices of their products and queues their notifications.
+ * The {@link PriceAlertIndex} is only changed once the trigger commits: alerts claimed from it are put back
+ * when the transaction rolls back, and alerts triggered by a sweep are removed from it after the commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceAlertEvaluator {
+    private final PriceAlertRepository alertRepository;
+    private final CurrentPriceRepository currentPriceRepository;
+    private final PriceAlertIndex priceAlertIndex;
+    private final NotificationOutbox notificationOutbox;
+
+    /**
+     * Triggers the alerts on the given products whose target price is at or above one of their current prices.
+     * Products without alerts are skipped before any query is made. The prices, the triggered alerts with their
+     * users and the update marking them triggered take one statement each, whatever the number of alerts.
+     *
+     * @param productNames the names of the products whose prices changed
+     */
+    @Transactional
+    public void evaluate(Collection<String> productNames) {
+        List<String> watchedNames = productNames.stream()
+                .filter(name -> name != null && priceAlertIndex.hasAlerts(name))
+                .toList();
+        if (watchedNames.isEmpty()) {
+            return;
+        }
+
+        long statementsBefore = SqlStatementCounter.getCount();
+        Map<String, List<CurrentPrice>> pricesByName = findPricesByName(watchedNames);
+
+        List<ClaimedAlert> claimed = new ArrayList<>();
+        afterCompletion(committed -> {
+            if (!committed) {
+                priceAlertIndex.restore(claimed);
+            }
+        });
+        for (Map.Entry<String, List<CurrentPrice>> entry : pricesByName.entrySet()) {
+            claimed.addAll(priceAlertIndex.claimAlerts(entry.getKey(), lowestPrice(entry.getValue())));
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        List<PriceAlert> triggered = trigger(claimed.stream().map(ClaimedAlert::alertId).toList(), pricesByName);
+        System.out.printf("Triggered %d price alerts on %d products with %d SQL statements%n",
+                triggered.size(), watchedNames.size(), SqlStatementCounter.getCount() - statementsBefore);
+    }
+
+    /**
+     * Triggers the given alerts whose target price is at or above one of the current prices of their product.
+     *
+     * @param alerts the untriggered alerts to evaluate
+     * @return the number of alerts triggered
+     */
+    @Transactional
+    public int evaluateAlerts(List<PriceAlert> alerts) {
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> productNames = alerts.stream().map(PriceAlert::getProductName).collect(Collectors.toSet());
+        Map<String, List<CurrentPrice>> pricesByName = findPricesByName(productNames);
+        List<Long> alertIds = alerts.stream()
+                .filter(alert -> pricesByName.containsKey(alert.getProductName())
+                        && lowestPrice(pricesByName.get(alert.getProductName())) <= alert.getTargetPrice())
+                .map(PriceAlert::getId)
+                .toList();
+        if (alertIds.isEmpty()) {
+            return 0;
+        }
+
+        List<PriceAlert> triggered = trigger(alertIds, pricesByName);
+        afterCompletion(committed -> {
+            if (committed) {
+                triggered.forEach(priceAlertIndex::remove);
+            }
+        });
+        return triggered.size();
+    }
+
+    private Map<String, List<CurrentPrice>> findPricesByName(Collection<String> productNames) {
+        return currentPriceRepository.findByProductNameIn(productNames).stream()
+                .collect(Collectors.groupingBy(CurrentPrice::getProductName));
+    }
+
+    private static double lowestPrice(List<CurrentPrice> currentPrices) {
+        return currentPrices.stream().mapToDouble(CurrentPrice::getFinalPrice).min().orElseThrow();
+    }
+
+    /**
+     * Marks the given alerts as triggered and queues the notifications of their users, skipping the alerts another instance
+     * triggered first.
+     *
+     * @return the alerts triggered by this call
+     */
+    private List<PriceAlert> trigger(List<Long> alertIds, Map<String, List<CurrentPrice>> pricesByName) {
+        List<PriceAlert> alerts = alertRepository.findUntriggeredWithUserByIdIn(alertIds);
+        if (alerts.isEmpty()) {
+            return alerts;
+        }
+
+        alertRepository.markTriggered(alerts.stream().map(PriceAlert::getId).toList());
+        List<AlertNotification> notifications = new ArrayList<>();
+        for (PriceAlert alert : alerts) {
+            List<CurrentPrice> matchingPrices = pricesByName.get(alert.getProductName()).stream()
+                    .filter(price -> price.getFinalPrice() <= alert.getTargetPrice())
+                    .toList();
+            notifications.add(createNotification(alert, matchingPrices));
+        }
+        notificationOutbox.queue(notifications);
+        return alerts;
+    }
+
+    private AlertNotification createNotification(PriceAlert alert, List<CurrentPrice> currentPrices) {
+        String content = currentPrices.stream()
+                .map(currentPrice -> String.format(" - Product: %s | Store: %s | Price: %.2f | Discount: %.0f%% | Date: %s",
+                        currentPrice.getProductName(),
+                        currentPrice.getCurrentPriceId().getSupermarket(),
+                        currentPrice.getFinalPrice(),
+                        currentPrice.getDiscountPercentage(),
+                        currentPrice.getSnapshotDate()))
+                .collect(Collectors.joining(System.lineSeparator()));
+
+        return AlertNotification.builder()
+                .alertId(alert.getId())
+                .userId(alert.getUser().getUserId())
+                .recipient(alert.getUser().getEmail())
+                .productName(alert.getProductName())
+                .targetPrice(alert.getTargetPrice())
+                .content(content)
+                .build();
+    }
+
+    /**
+     * Runs the callback once the current transaction completes, with whether it committed.
+     */
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.PriceAlert;
+import accesa.challenge.backend.repository.PriceAlertRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * In-memory index of the untriggered price alerts, keyed by product name, with the alerts of each product
+ * in a navigable map keyed by target price. Given a new price of a product, the alerts it triggers are the
+ * tail of that map from the price inclusive, so a match costs O(log n + hits) and adding an alert O(log n).
+ * Claimed alerts leave the index at once; a caller whose trigger does not commit puts them back with {@link #restore}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceAlertIndex {
+    private final PriceAlertRepository priceAlertRepository;
+
+    private final Map<String, NavigableMap<Double, List<Long>>> alertsByProductName = new HashMap<>();
+
+    /**
+     * Reloads the index from the untriggered alerts in the database.
+     */
+    public synchronized void rebuild() {
+        alertsByProductName.clear();
+        for (PriceAlert alert : priceAlertRepository.findByAlertTriggeredFalse()) {
+            add(alert);
+        }
+    }
+
+    public synchronized void add(PriceAlert alert) {
+        add(alert.getProductName(), alert.getTargetPrice(), alert.getId());
+    }
+
+    /**
+     * Puts claimed alerts back into the index, for a trigger that did not commit.
+     *
+     * @param alerts the alerts returned by {@link #claimAlerts}
+     */
+    public synchronized void restore(Collection<ClaimedAlert> alerts) {
+        for (ClaimedAlert alert : alerts) {
+            add(alert.productName(), alert.targetPrice(), alert.alertId());
+        }
+    }
+
+    public synchronized void remove(PriceAlert alert) {
+        NavigableMap<Double, List<Long>> alerts = alertsByProductName.get(alert.getProductName());
+        if (alerts == null) {
+            return;
+        }
+
+        List<Long> alertIds = alerts.get(alert.getTargetPrice());
+        if (alertIds != null && alertIds.remove(alert.getId()) && alertIds.isEmpty()) {
+            alerts.remove(alert.getTargetPrice());
+            if (alerts.isEmpty()) {
+                alertsByProductName.remove(alert.getProductName());
+            }
+        }
+    }
+
+    public synchronized boolean hasAlerts(String productName) {
+        return alertsByProductName.containsKey(productName);
+    }
+
+    public synchronized Set<String> getProductNames() {
+        return new HashSet<>(alertsByProductName.keySet());
+    }
+
+    /**
+     * Removes and returns the alerts of the product whose target price is at or above the given price.
+     * Each alert is returned to a single caller, so concurrent evaluations do not trigger it twice.
+     *
+     * @param productName the name of the product
+     * @param price       the new price of the product
+     * @return the triggered alerts
+     */
+    public synchronized List<ClaimedAlert> claimAlerts(String productName, double price) {
+        NavigableMap<Double, List<Long>> alerts = alertsByProductName.get(productName);
+        if (alerts == null) {
+            return List.of();
+        }
+
+        NavigableMap<Double, List<Long>> triggered = alerts.tailMap(price, true);
+        List<ClaimedAlert> claimed = new ArrayList<>();
+        triggered.forEach((targetPrice, alertIds) ->
+                alertIds.forEach(alertId -> claimed.add(new ClaimedAlert(alertId, productName, targetPrice))));
+        triggered.clear();
+        if (alerts.isEmpty()) {
+            alertsByProductName.remove(productName);
+        }
+        return claimed;
+    }
+
+    private void add(String productName, double targetPrice, long alertId) {
+        List<Long> alertIds = alertsByProductName
+                .computeIfAbsent(productName, k -> new TreeMap<>())
+                .computeIfAbsent(targetPrice, k -> new ArrayList<>());
+        if (!alertIds.contains(alertId)) {
+            alertIds.add(alertId);
+        }
+    }
+
+    /**
+     * An alert removed from the index by {@link #claimAlerts}, with what is needed to put it back.
+     */
+    public record ClaimedAlert(long alertId, String productName, double targetPrice) {
+    }
+}
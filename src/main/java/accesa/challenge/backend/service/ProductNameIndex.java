@@ -0,0 +1,120 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.Product;
+import accesa.challenge.backend.domain.event.ProductsImportedEvent;
+import accesa.challenge.backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index of the product names, used to find the products whose name contains a search term.
+ * Names are matched case- and diacritic-insensitively, so "branza" finds "brânză telemea".
+ * It is loaded with one query at startup and updated incrementally as products are imported.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductNameIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Product keys ({@code productId|supermarket}) per normalized product name.
+     */
+    private volatile Map<String, Set<String>> productKeysByName = new ConcurrentHashMap<>();
+    /**
+     * Normalized product names per trigram of the name.
+     */
+    private volatile Map<String, Set<String>> namesByGram = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, Set<String>> keysByName = new ConcurrentHashMap<>();
+        Map<String, Set<String>> byGram = new ConcurrentHashMap<>();
+        for (Object[] row : productRepository.findProductNameKeys()) {
+            add(keysByName, byGram, (String) row[0], row[1] + "|" + row[2]);
+        }
+        productKeysByName = keysByName;
+        namesByGram = byGram;
+    }
+
+    @EventListener
+    public synchronized void onProductsImported(ProductsImportedEvent event) {
+        for (Product product : event.getProducts()) {
+            add(productKeysByName, namesByGram, product.getProductName(),
+                    product.getProductId().getProductId() + "|" + product.getProductId().getSupermarket());
+        }
+    }
+
+    /**
+     * Returns the keys of the products whose name contains the search term.
+     *
+     * @param term the search term, matched case- and diacritic-insensitively
+     * @return the matching product keys, as {@code productId|supermarket}
+     */
+    public Set<String> findProductKeys(String term) {
+        String normalizedTerm = normalize(term);
+        Map<String, Set<String>> keysByName = productKeysByName;
+
+        Collection<String> candidates = normalizedTerm.length() < GRAM_LENGTH
+                ? keysByName.keySet()
+                : getNamesContainingAllGrams(normalizedTerm);
+
+        Set<String> productKeys = new HashSet<>();
+        for (String name : candidates) {
+            // The trigrams only narrow down the names; their order still has to be checked
+            if (name.contains(normalizedTerm)) {
+                productKeys.addAll(keysByName.getOrDefault(name, Set.of()));
+            }
+        }
+        return productKeys;
+    }
+
+    /**
+     * Lowercases the text and strips its diacritics.
+     */
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private Collection<String> getNamesContainingAllGrams(String normalizedTerm) {
+        Map<String, Set<String>> byGram = namesByGram;
+        List<Set<String>> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalizedTerm.length(); i++) {
+            Set<String> names = byGram.get(normalizedTerm.substring(i, i + GRAM_LENGTH));
+            if (names == null) {
+                return List.of();
+            }
+            postings.add(names);
+        }
+
+        // Intersect starting from the rarest trigram
+        postings.sort(Comparator.comparingInt(Set::size));
+        List<String> names = new ArrayList<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !names.isEmpty(); i++) {
+            names.retainAll(postings.get(i));
+        }
+        return names;
+    }
+
+    private static void add(Map<String, Set<String>> keysByName, Map<String, Set<String>> byGram,
+                            String productName, String productKey) {
+        if (productName == null) {
+            return;
+        }
+        String name = normalize(productName);
+        keysByName.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet()).add(productKey);
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            byGram.computeIfAbsent(name.substring(i, i + GRAM_LENGTH), k -> ConcurrentHashMap.newKeySet()).add(name);
+        }
+    }
+}
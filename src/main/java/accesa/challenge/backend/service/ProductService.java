@@ -1,47 +1,64 @@
 package accesa.challenge.backend.service;
 
 import accesa.challenge.backend.domain.dto.*;
+import accesa.challenge.backend.domain.entity.CurrentPrice;
 import accesa.challenge.backend.domain.entity.Product;
 import accesa.challenge.backend.domain.entity.ProductDiscount;
+import accesa.challenge.backend.repository.CurrentPriceRepository;
 import accesa.challenge.backend.repository.ProductDiscountRepository;
 import accesa.challenge.backend.repository.ProductRepository;
+import accesa.challenge.backend.utils.PriceTimeline;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
     private final ProductRepository productRepository;
     private final ProductDiscountRepository productDiscountRepository;
+    private final BestDiscountIndex bestDiscountIndex;
+    private final ProductNameIndex productNameIndex;
+    private final CurrentPriceRepository currentPriceRepository;
+    private final DiscountTimeline discountTimeline;
+
+    private static final Comparator<ProductCheapestDTO> CHEAPEST_PER_UNIT =
+            Comparator.comparingDouble(ProductCheapestDTO::getPricePerUnit)
+                    .thenComparing(ProductCheapestDTO::getStore)
+                    .thenComparing(ProductCheapestDTO::getProductId);
+
+    @Value("${price-history.stream-page-size:100}")
+    private int streamPageSize;
 
     /**
      * Retrieves a list of products with the highest available discount for
-     * each unique product and brand combination.
+     * each unique product and brand combination, highest discount first.
+     * The results are served from the precomputed {@link BestDiscountIndex}.
      *
+     * @param limit    optional maximum number of results
+     * @param store    optional store name; when set, the best discount of each product in this store is returned
+     * @param category optional category to filter products
      * @return a list of ProductBestDiscountDTO objects,
      * each representing the best discount for a specific product.
+     * @throws IllegalArgumentException if limit is negative
      */
-    public List<ProductBestDiscountDTO> getBestDiscounts() {
-        return productDiscountRepository.findAll().stream()
-                .filter(d -> d.getProduct() != null && d.getDiscountPercentage() != null)
-                .collect(Collectors.groupingBy(
-                        d -> d.getProduct().getProductName() + "|" + d.getProduct().getBrand(),
-                        Collectors.maxBy(Comparator.comparing(ProductDiscount::getDiscountPercentage))
-                ))
-                .values().stream()
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(d -> new ProductBestDiscountDTO(
-                        d.getProduct().getProductName(),
-                        d.getProduct().getBrand(),
-                        d.getProduct().getProductId().getSupermarket(),
-                        d.getDiscountPercentage()
-                ))
-                .toList();
+    public List<ProductBestDiscountDTO> getBestDiscounts(Integer limit, String store, String category) {
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative.");
+        }
+        return bestDiscountIndex.getBestDiscounts(limit, store, category);
     }
 
     /**
@@ -51,126 +68,312 @@ public class ProductService {
      * The discount's createdAt field is automatically generated using a random date
      * between five days before and the day of the discount's start date (`discountFromDate`),
      * simulating when the discount was added.
+     * The matching discounts are collected by the discount timeline as they are imported.
      *
      * @return a list of ProductDiscount objects that meet the criteria.
      */
     public List<ProductNewDiscountDTO> getRecentDiscounts() {
-        return productDiscountRepository.findAll().stream()
-                .filter(discount -> {
-                    if (discount == null || discount.getProduct() == null || discount.getProduct().getProductId() == null) {
-                        return false;
-                    }
-                    LocalDate productCreatedDate = discount.getProduct().getProductId().getCreationDate();
-                    LocalDate discountCreatedDate = discount.getCreatedAt();
-                    if (productCreatedDate == null || discountCreatedDate == null) {
-                        return false;
-                    }
-                    LocalDate dayBeforeProductCreated = productCreatedDate.minusDays(1);
-                    return !discountCreatedDate.isBefore(dayBeforeProductCreated) &&
-                            !discountCreatedDate.isAfter(productCreatedDate);
-                })
-                .map(d -> new ProductNewDiscountDTO(
-                        d.getProduct().getProductName(),
-                        d.getProduct().getBrand(),
-                        d.getProduct().getProductId().getSupermarket(),
-                        d.getDiscountPercentage(),
-                        d.getCreatedAt(),
-                        d.getProduct().getProductId().getCreationDate()
-                ))
-                .toList();
+        return discountTimeline.getNewDiscounts();
+    }
+
+    /**
+     * Retrieves the discounts active today, as tracked by the discount timeline.
+     *
+     * @param store optional store name to filter discounts
+     * @return a list of ProductActiveDiscountDTO objects
+     */
+    public List<ProductActiveDiscountDTO> getActiveDiscounts(String store) {
+        return discountTimeline.getActiveDiscounts(store);
     }
 
     /**
      * Retrieves the price history for products filtered by store, category, brand, and date range.
+     * Filtering happens in the database, one page of products at a time, and only the snapshots and
+     * discounts relevant to the date range are loaded.
      * For each product (grouped by productId and supermarket), it builds a history of price points
      * for each day in the given range, including any applicable discounts.
+     * Each day is resolved in O(log n) through the product's {@link PriceTimeline}.
      *
      * @param store    optional store name to filter products
      * @param category optional category to filter products
      * @param brand    optional brand to filter products
      * @param fromDate start date of the price history range (inclusive)
      * @param toDate   end date of the price history range (inclusive)
-     * @return a list of ProductPriceHistoryDTO, each containing the price history for a product
+     * @param pageable the page of products to return, ordered by store and product ID
+     * @return a slice of ProductPriceHistoryDTO, each containing the price history for a product
      */
-    public List<ProductPriceHistoryDTO> getPriceHistoryWithRange(
-            String store, String category, String brand, LocalDate fromDate, LocalDate toDate
+    public Slice<ProductPriceHistoryDTO> getPriceHistoryWithRange(
+            String store, String category, String brand, LocalDate fromDate, LocalDate toDate, Pageable pageable
     ) {
-        List<Product> products = productRepository.findAll();
-        if (products.isEmpty()) return List.of();
+        List<ProductPriceHistoryDTO> historyDTOList = new ArrayList<>();
+        boolean hasNext = forEachPriceTimeline(store, category, brand, fromDate, toDate, pageable,
+                (product, timeline) -> historyDTOList.add(buildPriceHistory(product, timeline, fromDate, toDate)));
+        return new SliceImpl<>(historyDTOList, pageable, hasNext);
+    }
 
-        // Filter products
-        if (store != null)
-            products = products.stream().filter(p -> p.getProductId().getSupermarket().equals(store)).toList();
-        if (category != null)
-            products = products.stream().filter(p -> p.getProductCategory().equals(category)).toList();
-        if (brand != null)
-            products = products.stream().filter(p -> p.getBrand().equals(brand)).toList();
+    /**
+     * Retrieves the same price histories as {@link #getPriceHistoryWithRange}, with each history encoded
+     * as a start date and parallel arrays of runs of days with the same price and discount.
+     *
+     * @param store    optional store name to filter products
+     * @param category optional category to filter products
+     * @param brand    optional brand to filter products
+     * @param fromDate start date of the price history range (inclusive)
+     * @param toDate   end date of the price history range (inclusive)
+     * @param pageable the page of products to return, ordered by store and product ID
+     * @return a slice of ProductPriceHistoryCompactDTO, each containing the price history for a product
+     */
+    public Slice<ProductPriceHistoryCompactDTO> getCompactPriceHistoryWithRange(
+            String store, String category, String brand, LocalDate fromDate, LocalDate toDate, Pageable pageable
+    ) {
+        List<ProductPriceHistoryCompactDTO> historyDTOList = new ArrayList<>();
+        boolean hasNext = forEachPriceTimeline(store, category, brand, fromDate, toDate, pageable, (product, timeline) -> {
+            ProductPriceHistoryCompactDTO historyDTO = timeline.getCompactHistory(fromDate, toDate);
+            historyDTO.setProductId(product.getProductId().getProductId());
+            historyDTO.setProductName(product.getProductName());
+            historyDTO.setBrand(product.getBrand());
+            historyDTO.setSupermarket(product.getProductId().getSupermarket());
+            historyDTOList.add(historyDTO);
+        });
+        return new SliceImpl<>(historyDTOList, pageable, hasNext);
+    }
 
-        List<ProductDiscount> discounts = productDiscountRepository.findAll();
+    /**
+     * Computes the same price histories as {@link #getPriceHistoryWithRange}, one page of products at a time,
+     * and hands each product's history to the consumer as soon as it is built, so that the caller can write it
+     * out without holding the whole result in memory.
+     * Pages are read by keyset on (supermarket, productId) from the last key of the previous page.
+     *
+     * @param store    optional store name to filter products
+     * @param category optional category to filter products
+     * @param brand    optional brand to filter products
+     * @param fromDate start date of the price history range (inclusive)
+     * @param toDate   end date of the price history range (inclusive)
+     * @param consumer receives the price history of each product
+     */
+    public void streamPriceHistory(String store, String category, String brand, LocalDate fromDate, LocalDate toDate,
+                                   Consumer<ProductPriceHistoryDTO> consumer) {
+        Pageable pageable = PageRequest.of(0, streamPageSize);
+        String afterSupermarket = null;
+        String afterProductId = null;
+        Slice<Object[]> productKeys;
+        do {
+            productKeys = productRepository.findProductKeysForPriceHistoryAfter(
+                    store, category, brand, toDate, afterSupermarket, afterProductId, pageable);
+            forEachPriceTimeline(productKeys.getContent(), category, brand, fromDate, toDate,
+                    (product, timeline) -> consumer.accept(buildPriceHistory(product, timeline, fromDate, toDate)));
+            if (productKeys.hasContent()) {
+                Object[] lastKey = productKeys.getContent().get(productKeys.getNumberOfElements() - 1);
+                afterProductId = (String) lastKey[0];
+                afterSupermarket = (String) lastKey[1];
+            }
+        } while (productKeys.hasNext());
+    }
 
-        Map<String, List<ProductDiscount>> discountMap = discounts.stream()
-                .collect(Collectors.groupingBy(this::getProductDiscountKey));
+    /**
+     * Loads one page of products matching the filters and builds the price timeline of each of them.
+     *
+     * @param consumer receives the first snapshot of each product in the range, with the product's timeline
+     * @return whether there are more pages
+     */
+    private boolean forEachPriceTimeline(String store, String category, String brand, LocalDate fromDate, LocalDate toDate,
+                                         Pageable pageable, BiConsumer<Product, PriceTimeline> consumer) {
+        Slice<Object[]> productKeys = productRepository.findProductKeysForPriceHistory(store, category, brand, toDate, pageable);
+        forEachPriceTimeline(productKeys.getContent(), category, brand, fromDate, toDate, consumer);
+        return productKeys.hasNext();
+    }
 
-        Map<String, List<Product>> productMap = products.stream()
+    /**
+     * Builds the price timeline of each of the given products from their snapshots and discounts in the date range.
+     *
+     * @param productKeys the (productId, supermarket) keys of the products
+     * @param consumer    receives the first snapshot of each product in the range, with the product's timeline
+     */
+    private void forEachPriceTimeline(List<Object[]> productKeys, String category, String brand, LocalDate fromDate,
+                                      LocalDate toDate, BiConsumer<Product, PriceTimeline> consumer) {
+        if (productKeys.isEmpty()) return;
+
+        Set<String> pageKeys = new LinkedHashSet<>();
+        Set<String> productIds = new HashSet<>();
+        Set<String> supermarkets = new HashSet<>();
+        for (Object[] productKey : productKeys) {
+            productIds.add((String) productKey[0]);
+            supermarkets.add((String) productKey[1]);
+            pageKeys.add(productKey[0] + "|" + productKey[1]);
+        }
+
+        // Only the snapshots from the latest one on or before fromDate are needed
+        LocalDate firstSnapshotDate = productRepository.findLatestSnapshotDates(productIds, supermarkets, category, brand, fromDate)
+                .stream()
+                .min(Comparator.naturalOrder())
+                .orElse(fromDate);
+
+        Map<String, List<Product>> productMap = productRepository
+                .findSnapshots(productIds, supermarkets, category, brand, firstSnapshotDate, toDate).stream()
+                .filter(p -> pageKeys.contains(getProductKey(p)))
                 .collect(Collectors.groupingBy(this::getProductKey));
 
-        List<ProductPriceHistoryDTO> historyDTOList = new ArrayList<>();
+        Map<String, List<ProductDiscount>> discountMap = productDiscountRepository
+                .findActiveBetween(productIds, supermarkets, fromDate, toDate).stream()
+                .filter(d -> pageKeys.contains(getProductDiscountKey(d)))
+                .sorted(Comparator.comparing(ProductDiscount::getDiscountId))
+                .collect(Collectors.groupingBy(this::getProductDiscountKey));
 
-        productMap.forEach((key, productEntries) -> {
-            productEntries = productEntries.stream()
-                    .sorted(Comparator.comparing(p -> p.getProductId().getCreationDate()))
-                    .toList();
-
-            Product firstProduct = productEntries.get(0);
-            String[] keyParts = key.split("\\|");
-            String productId = keyParts[0];
-            String supermarket = keyParts[1];
-
-            ProductPriceHistoryDTO historyDTO = ProductPriceHistoryDTO.builder()
-                    .productId(productId)
-                    .productName(firstProduct.getProductName())
-                    .brand(firstProduct.getBrand())
-                    .supermarket(supermarket)
-                    .build();
-
-            for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
-                Product latest = getLatestProductByDate(productEntries, date);
-                if (latest != null) {
-                    double originalPrice = latest.getPrice();
-                    double finalPrice = originalPrice;
-
-                    List<ProductDiscount> discountList = discountMap.getOrDefault(key, List.of());
-                    LocalDate finalDate = date;
-                    Optional<ProductDiscount> discountOpt = discountList.stream()
-                            .filter(d -> !finalDate.isBefore(d.getDiscountFromDate()) && !finalDate.isAfter(d.getDiscountToDate()))
-                            .findFirst();
-
-                    int discountPercentage = discountOpt.map(d -> d.getDiscountPercentage().intValue()).orElse(0);
-                    if (discountPercentage > 0) {
-                        finalPrice = originalPrice * (1 - discountPercentage / 100.0);
-                    }
+        for (String key : pageKeys) {
+            List<Product> productEntries = productMap.get(key);
+            if (productEntries == null) continue;
+
+            PriceTimeline timeline = PriceTimeline.of(productEntries, discountMap.getOrDefault(key, List.of()));
+
+            Product firstProduct = productEntries.stream()
+                    .min(Comparator.comparing(p -> p.getProductId().getCreationDate()))
+                    .orElseThrow();
+            consumer.accept(firstProduct, timeline);
+        }
+    }
 
-                    historyDTO.getPriceHistory().add(
-                            ProductPricePointDTO.builder()
-                                    .date(date)
-                                    .originalPrice(originalPrice)
-                                    .discountPercentage(discountPercentage)
-                                    .finalPrice(finalPrice)
-                                    .build()
-                    );
-                }
+    private ProductPriceHistoryDTO buildPriceHistory(Product product, PriceTimeline timeline, LocalDate fromDate, LocalDate toDate) {
+        ProductPriceHistoryDTO historyDTO = ProductPriceHistoryDTO.builder()
+                .productId(product.getProductId().getProductId())
+                .productName(product.getProductName())
+                .brand(product.getBrand())
+                .supermarket(product.getProductId().getSupermarket())
+                .build();
+
+        for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+            ProductPricePointDTO pricePoint = timeline.getPricePoint(date);
+            if (pricePoint != null) {
+                historyDTO.getPriceHistory().add(pricePoint);
             }
-            historyDTO.getPriceHistory().sort(Comparator.comparing(ProductPricePointDTO::getDate));
-            historyDTOList.add(historyDTO);
-        });
+        }
+        return historyDTO;
+    }
+
+    /**
+     * Retrieves the current price of a product in every supermarket, from its latest snapshot
+     * with the discount active today applied, cheapest first.
+     *
+     * @param productName the name of the product
+     * @return a list of ProductCurrentPriceDTO, one per supermarket selling the product
+     */
+    public List<ProductCurrentPriceDTO> getCurrentPrices(String productName) {
+        return currentPriceRepository.findByProductNameOrderByFinalPrice(productName).stream()
+                .map(this::mapCurrentPriceToDTO)
+                .toList();
+    }
+
+    private ProductCurrentPriceDTO mapCurrentPriceToDTO(CurrentPrice currentPrice) {
+        return ProductCurrentPriceDTO.builder()
+                .productId(currentPrice.getCurrentPriceId().getProductId())
+                .productName(currentPrice.getProductName())
+                .brand(currentPrice.getBrand())
+                .supermarket(currentPrice.getCurrentPriceId().getSupermarket())
+                .priceDate(currentPrice.getSnapshotDate())
+                .price(currentPrice.getPrice())
+                .discountPercentage(currentPrice.getDiscountPercentage())
+                .finalPrice(currentPrice.getFinalPrice())
+                .build();
+    }
+
+    /**
+     * Retrieves the K products with the lowest price per unit in the latest snapshot of every store.
+     * Each store's snapshot is streamed from the database through a bounded max-heap that keeps its K cheapest
+     * products, and the per-store heaps are then merged into the overall K cheapest, so at most K products
+     * per store are held in memory whatever the size of the catalog.
+     *
+     * @param category       optional category to filter products
+     * @param k              the number of products to return
+     * @param unit           optional normalized unit (kg, l, buc, role) to compare products in
+     * @param store          optional store to restrict the results to
+     * @param applyDiscounts whether the discounts active on the date are applied to the prices
+     * @param date           the date whose latest snapshot is used, and on which discounts must be active
+     * @return the K cheapest products per unit, cheapest first
+     * @throws IllegalArgumentException if k is not positive
+     */
+    @Transactional
+    public List<ProductCheapestDTO> getCheapestProducts(String category, int k, String unit, String store,
+                                                        boolean applyDiscounts, LocalDate date) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be greater than 0.");
+        }
+
+        PriorityQueue<ProductCheapestDTO> cheapest = new PriorityQueue<>(CHEAPEST_PER_UNIT.reversed());
+        for (Object[] snapshot : productRepository.findLatestSnapshotDatePerStore(store, date)) {
+            String supermarket = (String) snapshot[0];
+            LocalDate creationDate = (LocalDate) snapshot[1];
+            Map<String, Double> discounts = applyDiscounts
+                    ? getActiveDiscountPercentages(supermarket, creationDate, date)
+                    : Map.of();
+
+            PriorityQueue<ProductCheapestDTO> cheapestInStore = new PriorityQueue<>(CHEAPEST_PER_UNIT.reversed());
+            try (Stream<Object[]> rows = productRepository.streamUnitPrices(supermarket, creationDate, category, unit)) {
+                rows.forEach(row -> {
+                    double discountPercentage = discounts.getOrDefault((String) row[0], 0.0);
+                    double pricePerUnit = applyDiscount((Double) row[8], discountPercentage);
+                    // Most rows are rejected here, before a DTO is built for them
+                    if (cheapestInStore.size() >= k && pricePerUnit >= cheapestInStore.peek().getPricePerUnit()) {
+                        return;
+                    }
+                    offer(cheapestInStore, mapRowToCheapestDTO(row, supermarket, discountPercentage, pricePerUnit), k);
+                });
+            }
+            cheapestInStore.forEach(product -> offer(cheapest, product, k));
+        }
+
+        List<ProductCheapestDTO> result = new ArrayList<>(cheapest);
+        result.sort(CHEAPEST_PER_UNIT);
+        return result;
+    }
+
+    private Map<String, Double> getActiveDiscountPercentages(String supermarket, LocalDate creationDate, LocalDate date) {
+        Map<String, Double> discounts = new HashMap<>();
+        for (Object[] row : productDiscountRepository.findActiveDiscountPercentages(supermarket, creationDate, date)) {
+            discounts.put((String) row[0], ((Number) row[1]).doubleValue());
+        }
+        return discounts;
+    }
+
+    private ProductCheapestDTO mapRowToCheapestDTO(Object[] row, String supermarket, double discountPercentage,
+                                                   double pricePerUnit) {
+        double price = (Double) row[6];
+        return ProductCheapestDTO.builder()
+                .productId((String) row[0])
+                .productName((String) row[1])
+                .brand((String) row[2])
+                .store(supermarket)
+                .category((String) row[3])
+                .packageQuantity((Double) row[4])
+                .packageUnit((String) row[5])
+                .price(price)
+                .discountPercentage(discountPercentage)
+                .effectivePrice(applyDiscount(price, discountPercentage))
+                .unit((String) row[7])
+                .pricePerUnit(pricePerUnit)
+                .build();
+    }
+
+    /**
+     * Adds the product to a max-heap holding at most k products, evicting the most expensive one when full.
+     */
+    private static void offer(PriorityQueue<ProductCheapestDTO> heap, ProductCheapestDTO product, int k) {
+        if (heap.size() < k) {
+            heap.add(product);
+        } else if (CHEAPEST_PER_UNIT.compare(product, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(product);
+        }
+    }
 
-        return historyDTOList;
+    private static double applyDiscount(double price, double discountPercentage) {
+        return discountPercentage > 0 ? price * (1 - discountPercentage / 100.0) : price;
     }
 
     /**
      * Retrieves the best product recommendations for a given product name and date range.
      * The recommendations are filtered by the specified product name and date range,
+     * where the name is matched case- and diacritic-insensitively through the product name index,
      * and only the product with the lowest value per unit is included for each store.
+     * The value per unit is the price per unit computed at import; products with an unknown unit are skipped.
      * The discounts are not considered in this method.
      *
      * @param productName the name of the product to filter by
@@ -179,32 +382,31 @@ public class ProductService {
      * @return a list of ProductRecommendationDTO objects containing product recommendations
      */
     public List<ProductRecommendationDTO> getBestProductRecommendations(String productName, LocalDate fromDate, LocalDate toDate) {
-        // Filter products by name and date range
-        List<Product> products = productRepository.findAll().stream()
-                .filter(p -> p.getProductName() != null &&
-                        p.getProductName().toLowerCase().contains(productName.toLowerCase())
-                        && !p.getProductId().getCreationDate().isBefore(fromDate)
-                        && !p.getProductId().getCreationDate().isAfter(toDate))
-                .toList();
-
-        if (products.isEmpty()) return List.of();
+        Set<String> productKeys = productNameIndex.findProductKeys(productName);
+        if (productKeys.isEmpty()) return List.of();
+
+        Set<String> productIds = new HashSet<>();
+        Set<String> supermarkets = new HashSet<>();
+        for (String productKey : productKeys) {
+            String[] keyParts = productKey.split("\\|");
+            productIds.add(keyParts[0]);
+            supermarkets.add(keyParts[1]);
+        }
 
-        List<ProductRecommendationDTO> recommendations = products.stream()
-                .map(this::mapProductToRecommendationDTO)
+        // Load only the candidates' snapshots in the date range, cheapest per unit first
+        String normalizedName = ProductNameIndex.normalize(productName);
+        List<Product> products = productRepository.findSnapshotsOrderByPricePerUnit(productIds, supermarkets, fromDate, toDate).stream()
+                .filter(p -> productKeys.contains(getProductKey(p))
+                        && p.getProductName() != null
+                        && ProductNameIndex.normalize(p.getProductName()).contains(normalizedName))
                 .toList();
 
-        // Group by store and select the best value per unit for each store
-        Map<String, ProductRecommendationDTO> bestPerStore = recommendations.stream()
-                .collect(Collectors.toMap(
-                        ProductRecommendationDTO::getStore,
-                        rec -> rec,
-                        (rec1, rec2) -> rec1.getValuePerUnit() <= rec2.getValuePerUnit() ? rec1 : rec2
-                ));
-
-        // Return sorted list by value per unit
-        return bestPerStore.values().stream()
-                .sorted(Comparator.comparing(ProductRecommendationDTO::getValuePerUnit))
-                .toList();
+        // The first product of each store is its best value per unit
+        Map<String, ProductRecommendationDTO> bestPerStore = new LinkedHashMap<>();
+        for (Product product : products) {
+            bestPerStore.putIfAbsent(product.getProductId().getSupermarket(), mapProductToRecommendationDTO(product));
+        }
+        return new ArrayList<>(bestPerStore.values());
     }
 
     private ProductRecommendationDTO mapProductToRecommendationDTO(Product p) {
@@ -217,41 +419,10 @@ public class ProductService {
                 .packageQuantity(p.getPackageQuantity())
                 .packageUnit(p.getPackageUnit())
                 .price(p.getPrice())
-                .valuePerUnit(calculatePricePerUnit(p))
+                .valuePerUnit(p.getPricePerUnit())
                 .build();
     }
 
-    public double calculatePricePerUnit(Product p) {
-        if (p.getPackageQuantity() == null || p.getPackageQuantity() <= 0) {
-            throw new IllegalArgumentException("Package quantity must be greater than zero");
-        }
-        if (p.getPrice() == null || p.getPrice() < 0) {
-            throw new IllegalArgumentException("Price must be zero or positive");
-        }
-        double multiplier = getUnitMultiplier(p.getPackageUnit());
-        double quantityInStandardUnit = p.getPackageQuantity() * multiplier;
-
-        if (quantityInStandardUnit == 0) {
-            throw new IllegalArgumentException("Package quantity must be greater than zero");
-        }
-
-        return p.getPrice() / quantityInStandardUnit;
-    }
-
-    private double getUnitMultiplier(String unit) {
-        if (unit == null) {
-            throw new IllegalArgumentException("Package unit cannot be null");
-        }
-        return switch (unit.toLowerCase()) {
-            case "g" -> 0.001;  // grams to kilograms
-            case "ml" -> 0.001;  // milliliters to liters
-            case "kg" -> 1.0;    // kilograms
-            case "l" -> 1.0;    // liters
-            case "buc", "role" -> 1.0;   // count units: multiplier = 1
-            default -> throw new IllegalArgumentException("Unsupported unit: " + unit);
-        };
-    }
-
     private String getProductKey(Product product) {
         return product.getProductId().getProductId() + "|" + product.getProductId().getSupermarket();
     }
@@ -259,11 +430,4 @@ public class ProductService {
     private String getProductDiscountKey(ProductDiscount discount) {
         return discount.getProduct().getProductId().getProductId() + "|" + discount.getProduct().getProductId().getSupermarket();
     }
-
-    private Product getLatestProductByDate(List<Product> products, LocalDate date) {
-        return products.stream()
-                .filter(p -> !p.getProductId().getCreationDate().isAfter(date))
-                .reduce((first, second) -> second)
-                .orElse(null);
-    }
 }
@@ -2,17 +2,22 @@ package accesa.challenge.backend.service;
 
 import accesa.challenge.backend.domain.dto.*;
 import accesa.challenge.backend.domain.entity.*;
+import accesa.challenge.backend.domain.event.PriceAlertCreatedEvent;
 import accesa.challenge.backend.repository.BasketRepository;
+import accesa.challenge.backend.repository.CurrentPriceRepository;
 import accesa.challenge.backend.repository.PriceAlertRepository;
 import accesa.challenge.backend.repository.ProductRepository;
 import accesa.challenge.backend.repository.UserRepository;
+import accesa.challenge.backend.utils.BasketOptimizer;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +26,9 @@ public class UserService {
     private final PriceAlertRepository priceAlertRepository;
     private final ProductRepository productRepository;
     private final BasketRepository basketRepository;
+    private final CurrentPriceRepository currentPriceRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new price alert for a user and product.
@@ -48,6 +55,7 @@ public class UserService {
         alert.setTargetPrice(request.getTargetPrice());
 
         PriceAlert savedAlert = priceAlertRepository.save(alert);
+        eventPublisher.publishEvent(new PriceAlertCreatedEvent(savedAlert));
 
         return PriceAlertDTO.builder()
                 .id(savedAlert.getId())
@@ -111,16 +119,26 @@ public class UserService {
     }
 
     /**
-     * Groups the user's basket products by supermarket and returns a list of ShoppingBasketDTOs,
-     * each containing products from a single supermarket and the total cost.
+     * Finds the cheapest way to buy the user's basket. Every basket product is priced in every store that sells it,
+     * at the current price of its latest snapshot with the active discounts applied, and bought from the store
+     * chosen by the {@link BasketOptimizer}. The result is grouped by supermarket.
+     * Products without any current price are only bought from their basket store, at their snapshot price,
+     * and that store counts towards maxStores like any other.
      *
-     * @param userId the ID of the user whose basket is to be optimized
+     * @param userId    the ID of the user whose basket is to be optimized
+     * @param maxStores the maximum number of stores to buy from, or null for no limit
      * @return a list of ShoppingBasketDTOs grouped by supermarket
-     * @throws IllegalArgumentException if the user is not found
+     * @throws IllegalArgumentException if the user is not found, if maxStores is not positive,
+     *                                  or if the {@link BasketOptimizer} finds no way to buy the basket
+     *                                  from maxStores stores
      * @throws IllegalStateException    if the basket is not found
      */
     @Transactional
-    public List<ShoppingBasketDTO> optimizeUserBasket(Integer userId) {
+    public List<ShoppingBasketDTO> optimizeUserBasket(Integer userId, Integer maxStores) {
+        if (maxStores != null && maxStores < 1) {
+            throw new IllegalArgumentException("The maximum number of stores must be at least 1.");
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found!"));
 
@@ -132,23 +150,64 @@ public class UserService {
             return Collections.emptyList();
         }
 
-        return products.stream()
-                .collect(Collectors.groupingBy(p -> p.getProductId().getSupermarket()))
-                .entrySet().stream()
-                .map(entry -> {
-                    String supermarket = entry.getKey();
-                    List<ProductDTO> productDTOs = entry.getValue().stream()
-                            .map(this::mapProductToDTO)
-                            .toList();
-                    double totalCost = entry.getValue().stream()
-                            .mapToDouble(Product::getPrice)
-                            .sum();
-                    return ShoppingBasketDTO.builder()
-                            .supermarket(supermarket)
-                            .products(productDTOs)
-                            .totalCost(totalCost)
-                            .build();
-                })
+        // One basket item per product, whatever store and snapshot it was added from
+        Map<String, Product> itemsByProductId = new LinkedHashMap<>();
+        products.forEach(p -> itemsByProductId.putIfAbsent(p.getProductId().getProductId(), p));
+
+        // The offers of every item in every store, as price vectors over the stores. Items without any offer
+        // are only sold by their basket store, at their snapshot price, so they count towards the store limit too
+        List<CurrentPrice> offers = currentPriceRepository.findByCurrentPriceIdProductIdIn(itemsByProductId.keySet());
+        Set<String> pricedProductIds = offers.stream()
+                .map(offer -> offer.getCurrentPriceId().getProductId())
+                .collect(Collectors.toSet());
+        List<Product> unpricedItems = itemsByProductId.values().stream()
+                .filter(item -> !pricedProductIds.contains(item.getProductId().getProductId()))
+                .toList();
+        List<String> stores = Stream.concat(
+                        offers.stream().map(offer -> offer.getCurrentPriceId().getSupermarket()),
+                        unpricedItems.stream().map(item -> item.getProductId().getSupermarket()))
+                .distinct()
+                .sorted()
+                .toList();
+        Map<String, Integer> storeIndexes = new HashMap<>();
+        stores.forEach(store -> storeIndexes.put(store, storeIndexes.size()));
+        Map<String, CurrentPrice[]> offersByProductId = new HashMap<>();
+        for (CurrentPrice offer : offers) {
+            offersByProductId.computeIfAbsent(offer.getCurrentPriceId().getProductId(), k -> new CurrentPrice[stores.size()])
+                    [storeIndexes.get(offer.getCurrentPriceId().getSupermarket())] = offer;
+        }
+
+        List<Product> items = new ArrayList<>(itemsByProductId.values());
+        double[][] prices = new double[items.size()][];
+        for (int i = 0; i < prices.length; i++) {
+            Product item = items.get(i);
+            CurrentPrice[] itemOffers = offersByProductId.get(item.getProductId().getProductId());
+            if (itemOffers != null) {
+                prices[i] = Arrays.stream(itemOffers)
+                        .mapToDouble(offer -> offer != null ? offer.getFinalPrice() : Double.POSITIVE_INFINITY)
+                        .toArray();
+            } else {
+                prices[i] = new double[stores.size()];
+                Arrays.fill(prices[i], Double.POSITIVE_INFINITY);
+                prices[i][storeIndexes.get(item.getProductId().getSupermarket())] = item.getPrice();
+            }
+        }
+        int[] assignment = BasketOptimizer.optimize(prices, stores.size(), maxStores != null ? maxStores : 0);
+
+        Map<String, List<ProductDTO>> productsBySupermarket = new TreeMap<>();
+        for (int i = 0; i < assignment.length; i++) {
+            Product item = items.get(i);
+            CurrentPrice[] itemOffers = offersByProductId.get(item.getProductId().getProductId());
+            productsBySupermarket.computeIfAbsent(stores.get(assignment[i]), k -> new ArrayList<>())
+                    .add(mapProductToDTO(item, itemOffers != null ? itemOffers[assignment[i]] : null));
+        }
+
+        return productsBySupermarket.entrySet().stream()
+                .map(entry -> ShoppingBasketDTO.builder()
+                        .supermarket(entry.getKey())
+                        .products(entry.getValue())
+                        .totalCost(entry.getValue().stream().mapToDouble(ProductDTO::getPrice).sum())
+                        .build())
                 .toList();
     }
 
@@ -176,7 +235,11 @@ public class UserService {
         return userRepository.save(user);
     }
 
-    private ProductDTO mapProductToDTO(Product product) {
+    /**
+     * Maps a basket product to a DTO priced at the given current price, in the store of that price,
+     * or at the basket snapshot's price if there is no current price.
+     */
+    private ProductDTO mapProductToDTO(Product product, CurrentPrice currentPrice) {
         if (product == null) {
             return null;
         }
@@ -185,9 +248,9 @@ public class UserService {
                 .productId(product.getProductId().getProductId())
                 .productName(product.getProductName())
                 .brand(product.getBrand())
-                .supermarket(product.getProductId().getSupermarket())
-                .priceDate(product.getProductId().getCreationDate())
-                .price(product.getPrice())
+                .supermarket(currentPrice != null ? currentPrice.getCurrentPriceId().getSupermarket() : product.getProductId().getSupermarket())
+                .priceDate(currentPrice != null ? currentPrice.getSnapshotDate() : product.getProductId().getCreationDate())
+                .price(currentPrice != null ? currentPrice.getFinalPrice() : product.getPrice())
                 .build();
     }
 }
@@ -0,0 +1,137 @@
+package accesa.challenge.backend.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+
+/**
+ * Chooses the store to buy each basket item from so that the basket costs as little as possible,
+ * optionally visiting at most a given number of stores.
+ * Items are given as price vectors with one price per store, positive infinity where the store does not sell the item.
+ */
+@UtilityClass
+public class BasketOptimizer {
+    /**
+     * Above this number of stores the store subsets are chosen greedily instead of enumerated.
+     */
+    private static final int MAX_EXACT_STORES = 16;
+
+    /**
+     * Assigns every item to a store.
+     * Without a store limit, each item goes to its cheapest store. With a limit, the cost of every subset of stores
+     * is computed with one pass per item over the subsets, each subset extending a smaller one by a single store,
+     * and the cheapest subset within the limit is used, preferring fewer stores on equal cost.
+     * Above {@value #MAX_EXACT_STORES} stores the subset is chosen greedily instead, which is not guaranteed
+     * to find a set of stores covering the basket even when one exists within the limit.
+     *
+     * @param prices     the price of each item in each store; every item must be sold by at least one store
+     * @param storeCount the number of stores
+     * @param maxStores  the maximum number of stores to buy from, or 0 for no limit
+     * @return the index of the store each item is bought from
+     * @throws IllegalArgumentException if the items cannot all be bought from at most {@code maxStores} stores,
+     *                                  or, above {@value #MAX_EXACT_STORES} stores, if the greedy choice
+     *                                  found no such set of stores
+     */
+    public static int[] optimize(double[][] prices, int storeCount, int maxStores) {
+        boolean[] allowedStores = new boolean[storeCount];
+        if (maxStores <= 0 || maxStores >= storeCount) {
+            Arrays.fill(allowedStores, true);
+        } else if (storeCount <= MAX_EXACT_STORES) {
+            int bestMask = findCheapestStoreSet(prices, storeCount, maxStores);
+            for (int store = 0; store < storeCount; store++) {
+                allowedStores[store] = (bestMask & (1 << store)) != 0;
+            }
+        } else {
+            allowedStores = findStoreSetGreedily(prices, storeCount, maxStores);
+        }
+
+        int[] assignment = new int[prices.length];
+        for (int item = 0; item < prices.length; item++) {
+            assignment[item] = cheapestStore(prices[item], allowedStores);
+            if (assignment[item] < 0) {
+                throw new IllegalArgumentException(storeCount <= MAX_EXACT_STORES
+                        ? "The basket cannot be bought from " + maxStores + " stores"
+                        : "No set of " + maxStores + " stores covering the basket was found among " + storeCount + " stores");
+            }
+        }
+        return assignment;
+    }
+
+    private static int findCheapestStoreSet(double[][] prices, int storeCount, int maxStores) {
+        int masks = 1 << storeCount;
+        double[] cost = new double[masks];
+        double[] itemMin = new double[masks];
+        itemMin[0] = Double.POSITIVE_INFINITY;
+        for (double[] itemPrices : prices) {
+            for (int mask = 1; mask < masks; mask++) {
+                // The subset without its lowest store was already computed
+                itemMin[mask] = Math.min(itemMin[mask & (mask - 1)], itemPrices[Integer.numberOfTrailingZeros(mask)]);
+                cost[mask] += itemMin[mask];
+            }
+        }
+
+        int bestMask = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int mask = 1; mask < masks; mask++) {
+            int stores = Integer.bitCount(mask);
+            if (stores <= maxStores && (cost[mask] < bestCost
+                    || cost[mask] == bestCost && stores < Integer.bitCount(bestMask))) {
+                bestMask = mask;
+                bestCost = cost[mask];
+            }
+        }
+        return bestMask;
+    }
+
+    /**
+     * Adds stores one at a time, each time the one that covers the most remaining items, then lowers the cost the most.
+     */
+    private static boolean[] findStoreSetGreedily(double[][] prices, int storeCount, int maxStores) {
+        boolean[] allowedStores = new boolean[storeCount];
+        double[] currentMin = new double[prices.length];
+        Arrays.fill(currentMin, Double.POSITIVE_INFINITY);
+
+        for (int round = 0; round < maxStores; round++) {
+            int bestStore = -1;
+            int bestUncovered = Integer.MAX_VALUE;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (int store = 0; store < storeCount; store++) {
+                if (allowedStores[store]) {
+                    continue;
+                }
+                int uncovered = 0;
+                double cost = 0;
+                for (int item = 0; item < prices.length; item++) {
+                    double price = Math.min(currentMin[item], prices[item][store]);
+                    if (Double.isInfinite(price)) {
+                        uncovered++;
+                    } else {
+                        cost += price;
+                    }
+                }
+                if (uncovered < bestUncovered || uncovered == bestUncovered && cost < bestCost) {
+                    bestStore = store;
+                    bestUncovered = uncovered;
+                    bestCost = cost;
+                }
+            }
+
+            allowedStores[bestStore] = true;
+            for (int item = 0; item < prices.length; item++) {
+                currentMin[item] = Math.min(currentMin[item], prices[item][bestStore]);
+            }
+        }
+        return allowedStores;
+    }
+
+    private static int cheapestStore(double[] itemPrices, boolean[] allowedStores) {
+        int cheapest = -1;
+        for (int store = 0; store < itemPrices.length; store++) {
+            if (allowedStores[store] && !Double.isInfinite(itemPrices[store])
+                    && (cheapest < 0 || itemPrices[store] < itemPrices[cheapest])) {
+                cheapest = store;
+            }
+        }
+        return cheapest;
+    }
+}
@@ -0,0 +1,63 @@
+package accesa.challenge.backend.utils;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+
+/**
+ * Forward-only cursor over the rows of a CSV file, giving typed access to the cells of the current row
+ * without materializing the row as an array of strings.
+ */
+public interface CsvRowCursor {
+
+    /**
+     * Moves the cursor to the next row.
+     *
+     * @return false if there are no more rows
+     */
+    boolean next();
+
+    int columnCount();
+
+    String getString(int column);
+
+    /**
+     * Returns the cell as a string shared between all rows holding the same value,
+     * meant for low-cardinality columns such as category, brand, unit or currency.
+     */
+    default String getInternedString(int column) {
+        return getString(column);
+    }
+
+    default double getDouble(int column) {
+        return Double.parseDouble(getString(column));
+    }
+
+    default LocalDate getDate(int column) {
+        return LocalDate.parse(getString(column));
+    }
+
+    /**
+     * Adapts rows that are already split into string arrays.
+     */
+    static CsvRowCursor of(Iterator<String[]> rows) {
+        return new CsvRowCursor() {
+            private String[] row;
+
+            @Override
+            public boolean next() {
+                row = rows.hasNext() ? rows.next() : null;
+                return row != null;
+            }
+
+            @Override
+            public int columnCount() {
+                return row.length;
+            }
+
+            @Override
+            public String getString(int column) {
+                return row[column];
+            }
+        };
+    }
+}
@@ -15,6 +15,28 @@ public class FileDataExtractor {
         return parts[0];
     }
 
+    /**
+     * Checks whether the filename follows the price file naming rules,
+     * {@code <store>_<yyyy-MM-dd>.csv} or {@code <store>_discounts_<yyyy-MM-dd>.csv}.
+     */
+    public static boolean isPriceFile(String filename) {
+        try {
+            String[] parts = getFilenameParts(filename);
+            int expectedParts = isDiscountFile(filename) ? 3 : 2;
+            if (parts.length != expectedParts) {
+                return false;
+            }
+            extractFileDate(filename);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static boolean isDiscountFile(String filename) {
+        return filename != null && filename.contains("discounts");
+    }
+
     public static LocalDate extractCreationDate(String filename) {
         return extractDateFromFilename(filename, 1);
     }
@@ -23,6 +45,10 @@ public class FileDataExtractor {
         return extractDateFromFilename(filename, 2);
     }
 
+    public static LocalDate extractFileDate(String filename) {
+        return isDiscountFile(filename) ? extractCreationDateDiscounts(filename) : extractCreationDate(filename);
+    }
+
     private static LocalDate extractDateFromFilename(String filename, int index) {
         String[] parts = getFilenameParts(filename);
         if (parts.length <= index) {
@@ -0,0 +1,43 @@
+package accesa.challenge.backend.utils;
+
+import accesa.challenge.backend.domain.entity.AlertNotification;
+import accesa.challenge.backend.service.NotificationSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sends the notification digests to the standard output, and appends them to a file when one is configured.
+ * Meant for local runs and testing, in place of a real email or webhook sender.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "log", matchIfMissing = true)
+public class LogNotificationSender implements NotificationSender {
+
+    @Value("${notifications.log-file:}")
+    private String logFile;
+
+    @Override
+    public void send(String recipient, List<AlertNotification> notifications) throws IOException {
+        StringBuilder digest = new StringBuilder();
+        digest.append(String.format("Notify %s: %d price alerts triggered%n", recipient, notifications.size()));
+        for (AlertNotification notification : notifications) {
+            digest.append(String.format("%s at or below %.2f:%n", notification.getProductName(), notification.getTargetPrice()));
+            digest.append(notification.getContent()).append(System.lineSeparator());
+        }
+
+        if (logFile != null && !logFile.isBlank()) {
+            Path path = Paths.get(logFile);
+            Files.writeString(path, digest, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        System.out.print(digest);
+    }
+}
@@ -1,78 +1,174 @@
 package accesa.challenge.backend.utils;
 
+import accesa.challenge.backend.domain.entity.AlertShardLease;
 import accesa.challenge.backend.domain.entity.PriceAlert;
 import accesa.challenge.backend.domain.entity.Product;
-import accesa.challenge.backend.domain.entity.ProductDiscount;
-import accesa.challenge.backend.domain.entity.User;
+import accesa.challenge.backend.domain.event.ActiveDiscountsChangedEvent;
+import accesa.challenge.backend.domain.event.DiscountsImportedEvent;
+import accesa.challenge.backend.domain.event.PriceAlertCreatedEvent;
+import accesa.challenge.backend.domain.event.ProductsImportedEvent;
+import accesa.challenge.backend.repository.AlertShardLeaseRepository;
+import accesa.challenge.backend.repository.ImportLedgerRepository;
 import accesa.challenge.backend.repository.PriceAlertRepository;
-import accesa.challenge.backend.repository.ProductDiscountRepository;
 import accesa.challenge.backend.repository.ProductRepository;
+import accesa.challenge.backend.service.AlertShardCoordinator;
+import accesa.challenge.backend.service.PriceAlertEvaluator;
+import accesa.challenge.backend.service.PriceAlertIndex;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
+/**
+ * Evaluates the price alerts when prices change, instead of polling every alert on a fixed rate.
+ * Imports and discount changes publish events naming the changed products; only the alerts on those products
+ * are evaluated, against their current prices, through the {@link PriceAlertIndex}. The evaluations run on the
+ * alert executor once the change committed, through the {@link PriceAlertEvaluator}.
+ * <p>
+ * With several instances, each one also sweeps the alerts of the shards it leases through the
+ * {@link AlertShardCoordinator}, which catches the alerts created on other instances after its index was built.
+ * Triggering locks the alert rows, so an alert is notified once even when two instances evaluate it together.
+ * Notifications are written to the notification outbox and delivered after the check, outside its transaction.
+ */
 @Component
 @RequiredArgsConstructor
 public class PriceAlertScheduler {
     private final PriceAlertRepository alertRepository;
+    private final AlertShardLeaseRepository alertShardLeaseRepository;
     private final ProductRepository productRepository;
-    private final ProductDiscountRepository productDiscountRepository;
+    private final ImportLedgerRepository importLedgerRepository;
+    private final PriceAlertIndex priceAlertIndex;
+    private final PriceAlertEvaluator priceAlertEvaluator;
+    private final AlertShardCoordinator alertShardCoordinator;
+    private final Executor alertExecutor;
 
+    @Value("${alerts.sharding.cursor-overlap-seconds:120}")
+    private long cursorOverlapSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        priceAlertIndex.rebuild();
+    }
+
+    /**
+     * Evaluates the untriggered alerts in the shards owned by this instance that may have been met since the
+     * previous sweep: the alerts created since, and the alerts on the products of the files imported since, as
+     * recorded in the import ledger once a file is complete. Both are stamped before they commit, so each sweep
+     * reads back {@code alerts.sharding.cursor-overlap-seconds} before the start of the previous one.
+     * Each shard is evaluated in full on its first sweep of the day, for the discounts that start or end.
+     */
     @Transactional
-    @Scheduled(fixedRate = 60000) // every minute
+    @Scheduled(fixedDelayString = "${alerts.sharding.sweep-interval-millis:15000}")
     public void checkPriceAlerts() {
-        List<PriceAlert> activeAlerts = alertRepository.findByAlertTriggeredFalse();
+        List<Integer> shards = alertShardCoordinator.claimShards();
+        if (shards.isEmpty()) {
+            return;
+        }
+
+        long statementsBefore = SqlStatementCounter.getCount();
+        LocalDateTime sweepStart = LocalDateTime.now();
+        LocalDate today = sweepStart.toLocalDate();
+        Map<AlertCursor, List<Integer>> shardsByCursor = alertShardLeaseRepository.findAllById(shards).stream()
+                .collect(Collectors.groupingBy(AlertCursor::of, Collectors.mapping(AlertShardLease::getShardId, Collectors.toList())));
+
+        int evaluated = 0;
+        int triggered = 0;
+        for (Map.Entry<AlertCursor, List<Integer>> entry : shardsByCursor.entrySet()) {
+            List<PriceAlert> alerts = findAlertsToEvaluate(entry.getValue(), entry.getKey(), today);
+            evaluated += alerts.size();
+            triggered += priceAlertEvaluator.evaluateAlerts(alerts);
+            alertShardLeaseRepository.advanceCursor(entry.getValue(), alertShardCoordinator.getNodeId(), sweepStart, today);
+        }
+        if (evaluated > 0) {
+            System.out.printf("Evaluated %d price alerts in shards %s, triggered %d, with %d SQL statements%n",
+                    evaluated, shards, triggered, SqlStatementCounter.getCount() - statementsBefore);
+        }
+    }
+
+    private List<PriceAlert> findAlertsToEvaluate(List<Integer> shards, AlertCursor cursor, LocalDate today) {
+        int shardCount = alertShardCoordinator.getShardCount();
+        if (cursor.sweptAt() == null || !today.equals(cursor.evaluatedOn())) {
+            return alertRepository.findUntriggeredInShards(shardCount, shards);
+        }
 
-        for (PriceAlert alert : activeAlerts) {
-            List<Product> matchingProducts = findMatchingProducts(alert);
-            List<ProductDiscount> validDiscounts = findValidDiscounts(alert);
+        LocalDateTime since = cursor.sweptAt().minusSeconds(cursorOverlapSeconds);
+        Map<Long, PriceAlert> alerts = new LinkedHashMap<>();
+        alertRepository.findUntriggeredInShardsCreatedAfter(shardCount, shards, since)
+                .forEach(alert -> alerts.put(alert.getId(), alert));
 
-            if (!matchingProducts.isEmpty() || !validDiscounts.isEmpty()) {
-                alert.setAlertTriggered(true);
-                alertRepository.save(alert);
-                sendNotification(alert.getUser(), matchingProducts, validDiscounts);
+        Set<String> changedProductNames = new HashSet<>();
+        for (String filename : importLedgerRepository.findFilenamesImportedAfter(since)) {
+            if (FileDataExtractor.isPriceFile(filename)) {
+                changedProductNames.addAll(productRepository.findProductNamesBySupermarketAndCreationDate(
+                        FileDataExtractor.extractSupermarket(filename), FileDataExtractor.extractFileDate(filename)));
             }
         }
+        if (!changedProductNames.isEmpty()) {
+            alertRepository.findUntriggeredInShardsOnProducts(shardCount, shards, changedProductNames)
+                    .forEach(alert -> alerts.putIfAbsent(alert.getId(), alert));
+        }
+        return new ArrayList<>(alerts.values());
     }
 
-    private List<Product> findMatchingProducts(PriceAlert alert) {
-        return productRepository.findByProductName(alert.getProductName()).stream()
-                .filter(p -> p.getPrice() <= alert.getTargetPrice())
-                .toList();
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        Set<String> productNames = event.getProducts().stream().map(Product::getProductName).collect(Collectors.toSet());
+        submit(() -> priceAlertEvaluator.evaluate(productNames));
     }
 
-    private List<ProductDiscount> findValidDiscounts(PriceAlert alert) {
-        return productDiscountRepository.findByProductProductName(alert.getProductName()).stream()
-                .filter(d -> getDiscountedPrice(d) <= alert.getTargetPrice())
-                .toList();
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiscountsImported(DiscountsImportedEvent event) {
+        Set<String> productNames = event.getDiscounts().stream().map(d -> d.getProduct().getProductName()).collect(Collectors.toSet());
+        submit(() -> priceAlertEvaluator.evaluate(productNames));
     }
 
-    private double getDiscountedPrice(ProductDiscount discount) {
-        double originalPrice = discount.getProduct().getPrice();
-        return originalPrice * (1 - discount.getDiscountPercentage() / 100.0);
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActiveDiscountsChanged(ActiveDiscountsChangedEvent event) {
+        Set<String> productNames = new HashSet<>();
+        event.getActivated().forEach(discount -> productNames.add(discount.getProductName()));
+        event.getExpired().forEach(discount -> productNames.add(discount.getProductName()));
+        submit(() -> priceAlertEvaluator.evaluate(productNames));
     }
 
-    private void sendNotification(User user, List<Product> products, List<ProductDiscount> discounts) {
-        System.out.printf("Notify %s:%n", user.getEmail());
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceAlertCreated(PriceAlertCreatedEvent event) {
+        PriceAlert alert = event.getAlert();
+        submit(() -> {
+            priceAlertIndex.add(alert);
+            priceAlertEvaluator.evaluate(Set.of(alert.getProductName()));
+        });
+    }
 
-        for (Product product : products) {
-            System.out.printf(" - Product: %s | Store: %s | Price: %.2f | Date: %s%n",
-                    product.getProductName(),
-                    product.getProductId().getSupermarket(),
-                    product.getPrice(),
-                    product.getProductId().getCreationDate());
-        }
+    /**
+     * Runs an evaluation on the alert executor, so that it neither slows down nor fails the import or request
+     * that changed the prices. A failed evaluation is logged; its alerts are evaluated again by the next sweep.
+     */
+    private void submit(Runnable evaluation) {
+        alertExecutor.execute(() -> {
+            try {
+                evaluation.run();
+            } catch (RuntimeException e) {
+                System.err.println("Price alert evaluation failed: " + e.getMessage());
+            }
+        });
+    }
 
-        for (ProductDiscount discount : discounts) {
-            System.out.printf(" - Product: %s | Store: %s | Discount Price: %.2f | Valid: %s to %s%n",
-                    discount.getProduct().getProductName(),
-                    discount.getProduct().getProductId().getSupermarket(),
-                    getDiscountedPrice(discount),
-                    discount.getDiscountFromDate(),
-                    discount.getDiscountToDate());
+    /**
+     * How far a shard was evaluated, as stored in its lease.
+     */
+    private record AlertCursor(LocalDateTime sweptAt, LocalDate evaluatedOn) {
+        static AlertCursor of(AlertShardLease lease) {
+            return new AlertCursor(lease.getSweptAt(), lease.getEvaluatedOn());
         }
     }
 }
@@ -0,0 +1,345 @@
+package accesa.challenge.backend.utils;
+
+import org.springframework.core.io.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Purpose-built parser for the semicolon separated product and discount price files.
+ * Files on the filesystem are memory-mapped in windows, and cells are read in place from the mapped bytes:
+ * numbers and ISO dates are parsed without creating strings, and low-cardinality columns are interned
+ * by their bytes so repeated values share a single string. Text is always decoded as UTF-8.
+ * The first line of the file is treated as header and skipped. Quoted cells may contain separators,
+ * but not line breaks.
+ */
+public class PriceFileParser implements CsvRowCursor, Closeable {
+    private static final byte SEPARATOR = ';';
+    private static final byte QUOTE = '"';
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private long windowStart;
+    private ByteBuffer buffer;
+    private int position;
+
+    private int columns;
+    private int[] cellStart = new int[16];
+    private int[] cellEnd = new int[16];
+    private boolean[] cellEscaped = new boolean[16];
+    private byte[] scratch = new byte[256];
+
+    private byte[][] internKeys = new byte[64][];
+    private String[] internValues = new String[64];
+    private int internSize;
+
+    private PriceFileParser(FileChannel channel, long fileSize, ByteBuffer buffer) {
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.buffer = buffer;
+        skipByteOrderMark();
+        next(); // header
+    }
+
+    /**
+     * Opens a parser over the given price file. Files on the filesystem are memory-mapped,
+     * other resources (e.g. inside a jar) are read into memory.
+     *
+     * @param resource the price file
+     * @return a parser positioned before the first data row
+     * @throws IOException if the file cannot be read
+     */
+    public static PriceFileParser open(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+            try {
+                long fileSize = channel.size();
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(WINDOW_SIZE, fileSize));
+                return new PriceFileParser(channel, fileSize, window);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        try (InputStream inputStream = resource.getInputStream()) {
+            byte[] content = inputStream.readAllBytes();
+            return new PriceFileParser(null, content.length, ByteBuffer.wrap(content));
+        }
+    }
+
+    @Override
+    public boolean next() {
+        while (true) {
+            int lineEnd = findLineEnd();
+            if (lineEnd < 0) {
+                if (!isLastWindow()) {
+                    moveWindow();
+                    continue;
+                }
+                if (position >= buffer.limit()) {
+                    columns = 0;
+                    return false;
+                }
+                lineEnd = buffer.limit();
+            }
+
+            int lineStart = position;
+            position = lineEnd + 1;
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart) {
+                splitCells(lineStart, contentEnd);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int columnCount() {
+        return columns;
+    }
+
+    @Override
+    public String getString(int column) {
+        checkColumn(column);
+        String value = decode(cellStart[column], cellEnd[column]);
+        return cellEscaped[column] ? value.replace("\"\"", "\"") : value;
+    }
+
+    @Override
+    public String getInternedString(int column) {
+        checkColumn(column);
+        if (cellEscaped[column]) {
+            return getString(column);
+        }
+
+        int start = cellStart[column];
+        int length = cellEnd[column] - start;
+        int hash = 1;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+
+        int mask = internKeys.length - 1;
+        int slot = hash & mask;
+        while (internKeys[slot] != null) {
+            if (matches(internKeys[slot], start, length)) {
+                return internValues[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        byte[] key = new byte[length];
+        buffer.get(start, key);
+        internKeys[slot] = key;
+        internValues[slot] = new String(key, StandardCharsets.UTF_8);
+        String value = internValues[slot];
+        if (++internSize * 2 > internKeys.length) {
+            growInternTable();
+        }
+        return value;
+    }
+
+    @Override
+    public double getDouble(int column) {
+        checkColumn(column);
+        int start = cellStart[column];
+        int end = cellEnd[column];
+        int i = start;
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(getString(column));
+            }
+        }
+
+        if (digits == 0 || digits > 15 || scale >= POWERS_OF_TEN.length) {
+            // Empty, too long or exotic values keep the exact JDK semantics
+            return Double.parseDouble(getString(column));
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    @Override
+    public LocalDate getDate(int column) {
+        checkColumn(column);
+        int start = cellStart[column];
+        if (cellEnd[column] - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            return LocalDate.parse(getString(column));
+        }
+        int year = parseDigits(start, 4);
+        int month = parseDigits(start + 5, 2);
+        int day = parseDigits(start + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return LocalDate.parse(getString(column));
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private int findLineEnd() {
+        int limit = buffer.limit();
+        for (int i = position; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isLastWindow() {
+        return windowStart + buffer.limit() >= fileSize;
+    }
+
+    /**
+     * Maps the next window of the file, starting at the beginning of the current incomplete line.
+     */
+    private void moveWindow() {
+        if (position == 0) {
+            throw new UncheckedIOException(new IOException("Line longer than " + WINDOW_SIZE + " bytes at offset " + windowStart));
+        }
+        windowStart += position;
+        position = 0;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, fileSize - windowStart));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void splitCells(int start, int end) {
+        columns = 0;
+        int cell = start;
+        boolean inQuotes = false;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == QUOTE) {
+                inQuotes = !inQuotes;
+            } else if (b == SEPARATOR && !inQuotes) {
+                addCell(cell, i);
+                cell = i + 1;
+            }
+        }
+        addCell(cell, end);
+    }
+
+    private void addCell(int start, int end) {
+        if (columns == cellStart.length) {
+            cellStart = Arrays.copyOf(cellStart, columns * 2);
+            cellEnd = Arrays.copyOf(cellEnd, columns * 2);
+            cellEscaped = Arrays.copyOf(cellEscaped, columns * 2);
+        }
+
+        boolean escaped = false;
+        if (end - start >= 2 && buffer.get(start) == QUOTE && buffer.get(end - 1) == QUOTE) {
+            start++;
+            end--;
+            for (int i = start; i < end && !escaped; i++) {
+                escaped = buffer.get(i) == QUOTE;
+            }
+        }
+        cellStart[columns] = start;
+        cellEnd[columns] = end;
+        cellEscaped[columns] = escaped;
+        columns++;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean matches(byte[] key, int start, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void growInternTable() {
+        byte[][] oldKeys = internKeys;
+        String[] oldValues = internValues;
+        internKeys = new byte[oldKeys.length * 2][];
+        internValues = new String[oldKeys.length * 2];
+        int mask = internKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = Arrays.hashCode(oldKeys[i]) & mask;
+                while (internKeys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                internKeys[slot] = oldKeys[i];
+                internValues[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private int parseDigits(int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Column " + column + " out of bounds for row with " + columns + " columns");
+        }
+    }
+
+    private void skipByteOrderMark() {
+        if (buffer.limit() >= 3
+                && (buffer.get(0) & 0xFF) == 0xEF
+                && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF) {
+            position = 3;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package accesa.challenge.backend.utils;
+
+import accesa.challenge.backend.domain.dto.ImportFileResultDTO;
+import accesa.challenge.backend.service.ImportProgressListener;
+import accesa.challenge.backend.service.ImportService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static accesa.challenge.backend.utils.FileDataExtractor.*;
+
+/**
+ * Watches a drop directory for new price files and imports them as they land.
+ * A file is imported once no event was received for it during the debounce interval,
+ * so files that are still being copied are not picked up half written.
+ * The import ledger makes sure the same file content is imported at most once.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceFileWatcher {
+    private final ImportService importService;
+
+    @Value("${import.watch.directory:}")
+    private String watchDirectory;
+
+    @Value("${import.watch.debounce-millis:2000}")
+    private long debounceMillis;
+
+    /**
+     * Files waiting to be imported, with the time of the last event received for each.
+     */
+    private final Map<Path, Long> pendingFiles = new ConcurrentHashMap<>();
+    /**
+     * Discount files waiting for their product file, to report each of them once.
+     */
+    private final Set<Path> heldFiles = ConcurrentHashMap.newKeySet();
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService importScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (watchDirectory == null || watchDirectory.isBlank()) {
+            return;
+        }
+
+        Path directory = Paths.get(watchDirectory);
+        Files.createDirectories(directory);
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        // Files dropped while the application was down
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::onFileEvent);
+        }
+
+        watchThread = new Thread(() -> watch(directory), "price-file-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+
+        importScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "price-file-import"));
+        long interval = Math.max(debounceMillis / 2, 100);
+        importScheduler.scheduleWithFixedDelay(this::importReadyFiles, interval, interval, TimeUnit.MILLISECONDS);
+        System.out.println("Watching " + directory.toAbsolutePath() + " for new price files");
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (importScheduler != null) {
+            importScheduler.shutdownNow();
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch(Path directory) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() != StandardWatchEventKinds.OVERFLOW) {
+                        onFileEvent(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    System.err.println("Watch directory " + directory + " is no longer accessible");
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onFileEvent(Path file) {
+        if (isPriceFile(file.getFileName().toString())) {
+            pendingFiles.put(file, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Imports the pending files whose debounce interval has elapsed.
+     * A discount file is held back until the product file of the same supermarket and date is in the import ledger,
+     * or is imported together with it, so its discounts find their products.
+     */
+    private void importReadyFiles() {
+        long now = System.currentTimeMillis();
+        Map<Path, Long> debouncedFiles = new HashMap<>();
+        pendingFiles.forEach((file, lastEvent) -> {
+            if (now - lastEvent >= debounceMillis) {
+                debouncedFiles.put(file, lastEvent);
+            }
+        });
+
+        List<Path> readyFiles = new ArrayList<>();
+        debouncedFiles.forEach((file, lastEvent) -> {
+            if (!isWaitingForProductFile(file, debouncedFiles.keySet())
+                    // Only claim the file if no new event arrived in the meantime
+                    && pendingFiles.remove(file, lastEvent)) {
+                readyFiles.add(file);
+                heldFiles.remove(file);
+            }
+        });
+        if (readyFiles.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<ImportFileResultDTO> results = importService.importCsvFiles(readyFiles.stream()
+                    .filter(Files::isRegularFile)
+                    .map(FileSystemResource::new)
+                    .toList(), ImportProgressListener.NONE);
+            // A discount file imported along with a product file that failed waits for that file again
+            for (ImportFileResultDTO result : results) {
+                Path file = readyFiles.get(0).resolveSibling(result.getFilename());
+                if (result.getRowsWithoutProduct() > 0 && isWaitingForProductFile(file, Set.of())) {
+                    pendingFiles.putIfAbsent(file, now);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to import dropped price files " + readyFiles + ": " + e.getMessage());
+        }
+    }
+
+    private boolean isWaitingForProductFile(Path file, Set<Path> debouncedFiles) {
+        String filename = file.getFileName().toString();
+        if (!isDiscountFile(filename)) {
+            return false;
+        }
+        Path productFile = file.resolveSibling(extractSupermarket(filename) + "_" + extractFileDate(filename) + ".csv");
+        if (debouncedFiles.contains(productFile) || importService.isImported(productFile.getFileName().toString())) {
+            return false;
+        }
+        if (heldFiles.add(file)) {
+            System.out.println("Holding " + filename + " until " + productFile.getFileName() + " is imported");
+        }
+        return true;
+    }
+}
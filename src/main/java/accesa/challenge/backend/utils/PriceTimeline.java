@@ -0,0 +1,182 @@
+package accesa.challenge.backend.utils;
+
+import accesa.challenge.backend.domain.dto.ProductPriceHistoryCompactDTO;
+import accesa.challenge.backend.domain.dto.ProductPricePointDTO;
+import accesa.challenge.backend.domain.entity.Product;
+import accesa.challenge.backend.domain.entity.ProductDiscount;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Date-indexed price timeline of one product in one supermarket.
+ * Price snapshots are kept as a sorted array of dates, and the discounts are flattened with a sweep-line
+ * into disjoint date segments, so the effective price on a date is found with two binary searches.
+ * When several discounts overlap, the one that comes first in the given discount list applies.
+ */
+public class PriceTimeline {
+    private final long[] snapshotDays;
+    private final double[] snapshotPrices;
+    private final long[] segmentStartDays;
+    private final int[] segmentDiscounts;
+
+    private PriceTimeline(long[] snapshotDays, double[] snapshotPrices, long[] segmentStartDays, int[] segmentDiscounts) {
+        this.snapshotDays = snapshotDays;
+        this.snapshotPrices = snapshotPrices;
+        this.segmentStartDays = segmentStartDays;
+        this.segmentDiscounts = segmentDiscounts;
+    }
+
+    /**
+     * Builds the timeline of a product from its price snapshots and discounts.
+     *
+     * @param snapshots the product rows of one product ID and supermarket, in any order
+     * @param discounts the discounts of the same product and supermarket
+     * @return the timeline
+     */
+    public static PriceTimeline of(List<Product> snapshots, List<ProductDiscount> discounts) {
+        List<Product> sortedSnapshots = snapshots.stream()
+                .sorted(Comparator.comparing(p -> p.getProductId().getCreationDate()))
+                .toList();
+        long[] snapshotDays = new long[sortedSnapshots.size()];
+        double[] snapshotPrices = new double[sortedSnapshots.size()];
+        for (int i = 0; i < sortedSnapshots.size(); i++) {
+            snapshotDays[i] = sortedSnapshots.get(i).getProductId().getCreationDate().toEpochDay();
+            snapshotPrices[i] = sortedSnapshots.get(i).getPrice();
+        }
+
+        // Sweep over the discount start and end events; {day, +1 start / -1 end, discount index}
+        List<long[]> events = new ArrayList<>(discounts.size() * 2);
+        for (int i = 0; i < discounts.size(); i++) {
+            ProductDiscount discount = discounts.get(i);
+            events.add(new long[]{discount.getDiscountFromDate().toEpochDay(), 1, i});
+            events.add(new long[]{discount.getDiscountToDate().toEpochDay() + 1, -1, i});
+        }
+        events.sort(Comparator.comparingLong(event -> event[0]));
+
+        List<Long> segmentStarts = new ArrayList<>();
+        List<Integer> segmentValues = new ArrayList<>();
+        TreeSet<Integer> activeDiscounts = new TreeSet<>();
+        int e = 0;
+        while (e < events.size()) {
+            long day = events.get(e)[0];
+            for (; e < events.size() && events.get(e)[0] == day; e++) {
+                int index = (int) events.get(e)[2];
+                if (events.get(e)[1] > 0) {
+                    activeDiscounts.add(index);
+                } else {
+                    activeDiscounts.remove(index);
+                }
+            }
+            int value = activeDiscounts.isEmpty() ? 0 : discounts.get(activeDiscounts.first()).getDiscountPercentage().intValue();
+            if (segmentValues.isEmpty() || segmentValues.get(segmentValues.size() - 1) != value) {
+                segmentStarts.add(day);
+                segmentValues.add(value);
+            }
+        }
+
+        return new PriceTimeline(snapshotDays, snapshotPrices,
+                segmentStarts.stream().mapToLong(Long::longValue).toArray(),
+                segmentValues.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Returns the price point on the given date: the price of the latest snapshot taken on or before
+     * that date, with the discount active on that date applied.
+     *
+     * @param date the date
+     * @return the price point, or null if there is no snapshot on or before the date
+     */
+    public ProductPricePointDTO getPricePoint(LocalDate date) {
+        long day = date.toEpochDay();
+        int snapshot = floorIndex(snapshotDays, day);
+        if (snapshot < 0) {
+            return null;
+        }
+
+        double originalPrice = snapshotPrices[snapshot];
+        int discountPercentage = getDiscountPercentage(day);
+        return ProductPricePointDTO.builder()
+                .date(date)
+                .originalPrice(originalPrice)
+                .discountPercentage(discountPercentage)
+                .finalPrice(applyDiscount(originalPrice, discountPercentage))
+                .build();
+    }
+
+    /**
+     * Returns the price points between two dates as runs of days with the same price and discount.
+     * The runs are found by walking the snapshot and discount change days, so the cost depends on
+     * the number of price changes in the range and not on the number of days.
+     * Only the date and price columns of the returned history are set.
+     *
+     * @param fromDate start date (inclusive)
+     * @param toDate   end date (inclusive)
+     * @return the history, starting on the first date that has a price point; empty if there is none
+     */
+    public ProductPriceHistoryCompactDTO getCompactHistory(LocalDate fromDate, LocalDate toDate) {
+        long endDay = toDate.toEpochDay() + 1;
+        long day = snapshotDays.length == 0 ? endDay : Math.max(fromDate.toEpochDay(), snapshotDays[0]);
+
+        int capacity = day < endDay ? snapshotDays.length + segmentStartDays.length + 1 : 0;
+        int[] runLengths = new int[capacity];
+        double[] originalPrices = new double[capacity];
+        int[] discountPercentages = new int[capacity];
+        int runs = 0;
+
+        LocalDate startDate = day < endDay ? LocalDate.ofEpochDay(day) : null;
+        int snapshot = floorIndex(snapshotDays, day);
+        int segment = floorIndex(segmentStartDays, day);
+        while (day < endDay) {
+            double originalPrice = snapshotPrices[snapshot];
+            int discountPercentage = segment < 0 ? 0 : segmentDiscounts[segment];
+
+            long nextDay = endDay;
+            if (snapshot + 1 < snapshotDays.length) nextDay = Math.min(nextDay, snapshotDays[snapshot + 1]);
+            if (segment + 1 < segmentStartDays.length) nextDay = Math.min(nextDay, segmentStartDays[segment + 1]);
+
+            // A new snapshot or segment does not always change the price, so equal runs are merged
+            if (runs > 0 && originalPrices[runs - 1] == originalPrice && discountPercentages[runs - 1] == discountPercentage) {
+                runLengths[runs - 1] += (int) (nextDay - day);
+            } else {
+                runLengths[runs] = (int) (nextDay - day);
+                originalPrices[runs] = originalPrice;
+                discountPercentages[runs] = discountPercentage;
+                runs++;
+            }
+
+            day = nextDay;
+            while (snapshot + 1 < snapshotDays.length && snapshotDays[snapshot + 1] <= day) snapshot++;
+            while (segment + 1 < segmentStartDays.length && segmentStartDays[segment + 1] <= day) segment++;
+        }
+
+        double[] finalPrices = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            finalPrices[i] = applyDiscount(originalPrices[i], discountPercentages[i]);
+        }
+        return ProductPriceHistoryCompactDTO.builder()
+                .startDate(startDate)
+                .runLengths(Arrays.copyOf(runLengths, runs))
+                .originalPrices(Arrays.copyOf(originalPrices, runs))
+                .discountPercentages(Arrays.copyOf(discountPercentages, runs))
+                .finalPrices(finalPrices)
+                .build();
+    }
+
+    private static double applyDiscount(double originalPrice, int discountPercentage) {
+        return discountPercentage > 0 ? originalPrice * (1 - discountPercentage / 100.0) : originalPrice;
+    }
+
+    private int getDiscountPercentage(long day) {
+        int segment = floorIndex(segmentStartDays, day);
+        return segment < 0 ? 0 : segmentDiscounts[segment];
+    }
+
+    /**
+     * Returns the index of the last value lower than or equal to the key, or -1 if there is none.
+     */
+    private static int floorIndex(long[] sortedValues, long key) {
+        int index = Arrays.binarySearch(sortedValues, key);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,22 @@
+package accesa.challenge.backend.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread, so a unit of work can report how many
+ * statements it issued by comparing the count before and after it.
+ * Registered through the {@code hibernate.session_factory.statement_inspector} property.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long getCount() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
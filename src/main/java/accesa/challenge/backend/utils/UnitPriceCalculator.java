@@ -0,0 +1,71 @@
+package accesa.challenge.backend.utils;
+
+import accesa.challenge.backend.domain.entity.Product;
+import lombok.experimental.UtilityClass;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts package quantities to a canonical unit (kg, l or a count unit) and computes the price per canonical unit.
+ */
+@UtilityClass
+public class UnitPriceCalculator {
+    /**
+     * Canonical unit and multiplier to the canonical unit, per lowercase package unit.
+     */
+    private static final Map<String, CanonicalUnit> CANONICAL_UNITS = Map.of(
+            "g", new CanonicalUnit("kg", 0.001),   // grams to kilograms
+            "kg", new CanonicalUnit("kg", 1.0),
+            "ml", new CanonicalUnit("l", 0.001),   // milliliters to liters
+            "l", new CanonicalUnit("l", 1.0),
+            "buc", new CanonicalUnit("buc", 1.0),  // count units
+            "role", new CanonicalUnit("role", 1.0)
+    );
+
+    /**
+     * Sets the normalized quantity, normalized unit and price per unit of the product from its package quantity,
+     * package unit and price. They are left null when the unit is unknown or the quantity or price are invalid.
+     *
+     * @param product the product to update
+     */
+    public static void applyUnitPrice(Product product) {
+        CanonicalUnit unit = product.getPackageUnit() == null
+                ? null
+                : CANONICAL_UNITS.get(product.getPackageUnit().toLowerCase(Locale.ROOT));
+        Double quantity = product.getPackageQuantity();
+        Double price = product.getPrice();
+        if (unit == null || quantity == null || quantity <= 0 || price == null || price < 0) {
+            product.setNormalizedQuantity(null);
+            product.setNormalizedUnit(null);
+            product.setPricePerUnit(null);
+            return;
+        }
+
+        double normalizedQuantity = quantity * unit.multiplier();
+        product.setNormalizedQuantity(normalizedQuantity);
+        product.setNormalizedUnit(unit.name());
+        product.setPricePerUnit(price / normalizedQuantity);
+    }
+
+    /**
+     * Returns the SQL expressions computing the normalized quantity, normalized unit and price per unit
+     * of a products table row, used to fill in rows imported before the columns existed.
+     *
+     * @return the expressions, in that order
+     */
+    public static String[] getUnitPriceSqlExpressions() {
+        StringBuilder quantity = new StringBuilder("CASE LOWER(package_unit)");
+        StringBuilder unit = new StringBuilder("CASE LOWER(package_unit)");
+        CANONICAL_UNITS.forEach((packageUnit, canonicalUnit) -> {
+            quantity.append(" WHEN '").append(packageUnit).append("' THEN package_quantity * ").append(canonicalUnit.multiplier());
+            unit.append(" WHEN '").append(packageUnit).append("' THEN '").append(canonicalUnit.name()).append("'");
+        });
+        quantity.append(" END");
+        unit.append(" END");
+        return new String[]{quantity.toString(), unit.toString(), "price / (" + quantity + ")"};
+    }
+
+    private record CanonicalUnit(String name, double multiplier) {
+    }
+}
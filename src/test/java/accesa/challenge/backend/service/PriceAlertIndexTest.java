@@ -0,0 +1,66 @@
+package accesa.challenge.backend.service;
+
+import accesa.challenge.backend.domain.entity.PriceAlert;
+import accesa.challenge.backend.service.PriceAlertIndex.ClaimedAlert;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceAlertIndexTest {
+    private final PriceAlertIndex index = new PriceAlertIndex(null);
+
+    @Test
+    void claimsAlertsWithTargetEqualToThePrice() {
+        index.add(alert(1L, "lapte zuzu", 9.5));
+        index.add(alert(2L, "lapte zuzu", 9.49));
+
+        assertEquals(List.of(1L), alertIds(index.claimAlerts("lapte zuzu", 9.5)));
+        assertTrue(index.hasAlerts("lapte zuzu"));
+        assertEquals(List.of(2L), alertIds(index.claimAlerts("lapte zuzu", 9.49)));
+        assertFalse(index.hasAlerts("lapte zuzu"));
+    }
+
+    @Test
+    void doesNotClaimAlertsWithTargetJustBelowThePrice() {
+        index.add(alert(1L, "lapte zuzu", 9.5));
+
+        assertTrue(index.claimAlerts("lapte zuzu", Math.nextUp(9.5)).isEmpty());
+        assertTrue(index.hasAlerts("lapte zuzu"));
+    }
+
+    @Test
+    void claimsEachAlertOnce() {
+        index.add(alert(1L, "lapte zuzu", 10.0));
+        index.add(alert(2L, "lapte zuzu", 10.0));
+        index.add(alert(3L, "lapte zuzu", 12.0));
+        index.add(alert(4L, "ouă", 12.0));
+
+        assertEquals(List.of(1L, 2L, 3L), alertIds(index.claimAlerts("lapte zuzu", 9.0)));
+        assertTrue(index.claimAlerts("lapte zuzu", 9.0).isEmpty());
+        assertEquals(List.of(4L), alertIds(index.claimAlerts("ouă", 12.0)));
+    }
+
+    @Test
+    void restoresClaimedAlerts() {
+        index.add(alert(1L, "lapte zuzu", 10.0));
+        List<ClaimedAlert> claimed = index.claimAlerts("lapte zuzu", 10.0);
+
+        index.restore(claimed);
+
+        assertEquals(claimed, index.claimAlerts("lapte zuzu", 10.0));
+    }
+
+    private static PriceAlert alert(Long id, String productName, double targetPrice) {
+        return PriceAlert.builder()
+                .id(id)
+                .productName(productName)
+                .targetPrice(targetPrice)
+                .build();
+    }
+
+    private static List<Long> alertIds(List<ClaimedAlert> claimed) {
+        return claimed.stream().map(ClaimedAlert::alertId).toList();
+    }
+}
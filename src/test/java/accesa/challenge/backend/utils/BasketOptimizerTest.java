@@ -0,0 +1,164 @@
+package accesa.challenge.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasketOptimizerTest {
+    private static final double NOT_SOLD = Double.POSITIVE_INFINITY;
+
+    @Test
+    void buysEachItemFromItsCheapestStoreWithoutLimit() {
+        double[][] prices = {
+                {10.0, 8.0, 9.0},
+                {5.0, NOT_SOLD, 4.5},
+                {NOT_SOLD, NOT_SOLD, 3.0}
+        };
+
+        assertArrayEquals(new int[]{1, 2, 2}, BasketOptimizer.optimize(prices, 3, 0));
+        assertArrayEquals(new int[]{1, 2, 2}, BasketOptimizer.optimize(prices, 3, 3));
+    }
+
+    @Test
+    void matchesBruteForceWithinTheStoreLimit() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            int storeCount = 1 + random.nextInt(6);
+            int maxStores = 1 + random.nextInt(storeCount);
+            double[][] prices = randomPrices(random, 1 + random.nextInt(8), storeCount);
+
+            double expected = bruteForceCost(prices, storeCount, maxStores);
+            if (Double.isInfinite(expected)) {
+                assertThrows(IllegalArgumentException.class, () -> BasketOptimizer.optimize(prices, storeCount, maxStores));
+                continue;
+            }
+            int[] assignment = BasketOptimizer.optimize(prices, storeCount, maxStores);
+            assertTrue(storesUsed(assignment) <= maxStores);
+            assertEquals(expected, cost(prices, assignment), 1e-9);
+        }
+    }
+
+    @Test
+    void prefersFewerStoresOnEqualCost() {
+        double[][] prices = {
+                {2.0, 2.0, 3.0},
+                {4.0, 5.0, 4.0}
+        };
+
+        assertArrayEquals(new int[]{0, 0}, BasketOptimizer.optimize(prices, 3, 2));
+    }
+
+    @Test
+    void rejectsLimitTooLowToCoverTheBasket() {
+        // Each item is sold by a single store, like a basket item without any current price
+        double[][] prices = {
+                {1.0, NOT_SOLD, NOT_SOLD},
+                {NOT_SOLD, 2.0, NOT_SOLD},
+                {NOT_SOLD, NOT_SOLD, 3.0}
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> BasketOptimizer.optimize(prices, 3, 2));
+        assertArrayEquals(new int[]{0, 1, 2}, BasketOptimizer.optimize(prices, 3, 3));
+    }
+
+    @Test
+    void choosesStoresGreedilyAboveSixteenStores() {
+        Random random = new Random(7);
+        int storeCount = 24;
+        double[][] prices = randomPrices(random, 30, storeCount);
+        // Every item is sold by one of the first three stores, so three stores always cover the basket
+        for (int item = 0; item < prices.length; item++) {
+            prices[item][item % 3] = 50 + random.nextInt(50);
+        }
+
+        for (int maxStores = 3; maxStores <= 6; maxStores++) {
+            int[] assignment = BasketOptimizer.optimize(prices, storeCount, maxStores);
+            assertEquals(prices.length, assignment.length);
+            assertTrue(storesUsed(assignment) <= maxStores);
+            for (int item = 0; item < prices.length; item++) {
+                assertFalse(Double.isInfinite(prices[item][assignment[item]]));
+            }
+        }
+    }
+
+    @Test
+    void rejectsGreedyStoreSetThatCannotCoverTheBasket() {
+        int storeCount = 20;
+        double[][] prices = new double[storeCount][storeCount];
+        for (int item = 0; item < storeCount; item++) {
+            Arrays.fill(prices[item], NOT_SOLD);
+            prices[item][item] = 1.0;
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> BasketOptimizer.optimize(prices, storeCount, storeCount - 1));
+    }
+
+    @Test
+    void greedyStoreSetMayMissACoverWithinTheLimit() {
+        // Stores 0 and 1 cover the basket, but store 2 covers more items and is taken first, leaving no single store for the rest
+        int storeCount = 17;
+        double[][] prices = new double[6][storeCount];
+        for (double[] itemPrices : prices) {
+            Arrays.fill(itemPrices, NOT_SOLD);
+        }
+        for (int item = 0; item < 6; item++) {
+            prices[item][item < 3 ? 0 : 1] = 2.0;
+        }
+        for (int item : new int[]{0, 1, 3, 4}) {
+            prices[item][2] = 1.0;
+        }
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BasketOptimizer.optimize(prices, storeCount, 2));
+        assertTrue(e.getMessage().startsWith("No set of 2 stores"));
+        assertEquals(3, storesUsed(BasketOptimizer.optimize(prices, storeCount, 3)));
+    }
+
+    private static double[][] randomPrices(Random random, int itemCount, int storeCount) {
+        double[][] prices = new double[itemCount][storeCount];
+        for (int item = 0; item < itemCount; item++) {
+            for (int store = 0; store < storeCount; store++) {
+                prices[item][store] = random.nextInt(4) == 0 ? NOT_SOLD : 1 + random.nextInt(20) / 2.0;
+            }
+            // Every item must be sold by at least one store
+            prices[item][random.nextInt(storeCount)] = 1 + random.nextInt(20) / 2.0;
+        }
+        return prices;
+    }
+
+    private static double bruteForceCost(double[][] prices, int storeCount, int maxStores) {
+        double best = NOT_SOLD;
+        for (int mask = 1; mask < 1 << storeCount; mask++) {
+            if (Integer.bitCount(mask) > maxStores) {
+                continue;
+            }
+            double total = 0;
+            for (double[] itemPrices : prices) {
+                double cheapest = NOT_SOLD;
+                for (int store = 0; store < storeCount; store++) {
+                    if ((mask & (1 << store)) != 0) {
+                        cheapest = Math.min(cheapest, itemPrices[store]);
+                    }
+                }
+                total += cheapest;
+            }
+            best = Math.min(best, total);
+        }
+        return best;
+    }
+
+    private static double cost(double[][] prices, int[] assignment) {
+        double total = 0;
+        for (int item = 0; item < assignment.length; item++) {
+            total += prices[item][assignment[item]];
+        }
+        return total;
+    }
+
+    private static long storesUsed(int[] assignment) {
+        return Arrays.stream(assignment).distinct().count();
+    }
+}
@@ -0,0 +1,97 @@
+package accesa.challenge.backend.utils;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the OpenCSV based reading of a product price file with {@link PriceFileParser}.
+ * Run the main method from the IDE, or with {@code mvn test-compile exec:java}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceFileParserBenchmark {
+    private static final String[] CATEGORIES = {"lactate", "ouă", "panificație", "legume și fructe", "băuturi"};
+    private static final String[] BRANDS = {"Zuzu", "Olympus", "Pilos", "Hochland", "Ferma Veche", "Dorna"};
+    private static final String[] UNITS = {"l", "kg", "g", "ml", "buc"};
+
+    @Param({"100000"})
+    private int rows;
+
+    private Path file;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PriceFileParserBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void createFile() throws IOException {
+        file = Files.createTempFile("lidl_2025-05-01", ".csv");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("product_id;product_name;product_category;brand;package_quantity;package_unit;price;currency\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(String.format(Locale.ROOT, "P%06d;brânză telemea %d;%s;%s;%.1f;%s;%.2f;RON%n",
+                        i, i % 500, CATEGORIES[i % CATEGORIES.length], BRANDS[i % BRANDS.length],
+                        0.1 + i % 10, UNITS[i % UNITS.length], 1 + (i % 5000) / 100.0));
+            }
+        }
+    }
+
+    @TearDown
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void openCsv(Blackhole blackhole) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file.toFile()))) {
+            CSVReader csvReader = new CSVReaderBuilder(reader)
+                    .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
+                    .withSkipLines(1)
+                    .build();
+            for (String[] row : csvReader) {
+                blackhole.consume(row[0]);
+                blackhole.consume(row[1]);
+                blackhole.consume(row[2]);
+                blackhole.consume(row[3]);
+                blackhole.consume(Double.parseDouble(row[4]));
+                blackhole.consume(row[5]);
+                blackhole.consume(Double.parseDouble(row[6]));
+                blackhole.consume(row[7]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void priceFileParser(Blackhole blackhole) throws IOException {
+        try (PriceFileParser parser = PriceFileParser.open(new FileSystemResource(file))) {
+            while (parser.next()) {
+                blackhole.consume(parser.getString(0));
+                blackhole.consume(parser.getString(1));
+                blackhole.consume(parser.getInternedString(2));
+                blackhole.consume(parser.getInternedString(3));
+                blackhole.consume(parser.getDouble(4));
+                blackhole.consume(parser.getInternedString(5));
+                blackhole.consume(parser.getDouble(6));
+                blackhole.consume(parser.getInternedString(7));
+            }
+        }
+    }
+}
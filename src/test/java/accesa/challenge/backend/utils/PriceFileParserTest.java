@@ -0,0 +1,172 @@
+package accesa.challenge.backend.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceFileParserTest {
+    private static final String HEADER = "product_id;product_name;price\n";
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsQuotedCellsWithSeparatorsAndEscapedQuotes() throws IOException {
+        try (PriceFileParser parser = parse(HEADER + "P001;\"lapte; 1.5%\";\"9.50\"\nP002;\"brânză \"\"Hochland\"\"\";12\n")) {
+            assertTrue(parser.next());
+            assertEquals(3, parser.columnCount());
+            assertEquals("lapte; 1.5%", parser.getString(1));
+            assertEquals(9.5, parser.getDouble(2));
+
+            assertTrue(parser.next());
+            assertEquals("brânză \"Hochland\"", parser.getString(1));
+            assertEquals("brânză \"Hochland\"", parser.getInternedString(1));
+            assertEquals(12.0, parser.getDouble(2));
+            assertFalse(parser.next());
+        }
+    }
+
+    @Test
+    void readsCrLfLinesAndSkipsEmptyLines() throws IOException {
+        try (PriceFileParser parser = parse(HEADER.replace("\n", "\r\n") + "P001;lapte;9.5\r\n\r\nP002;ouă;7\r\n")) {
+            assertTrue(parser.next());
+            assertEquals("9.5", parser.getString(2));
+            assertTrue(parser.next());
+            assertEquals("P002", parser.getString(0));
+            assertEquals(7.0, parser.getDouble(2));
+            assertFalse(parser.next());
+        }
+    }
+
+    @Test
+    void readsLastRowWithoutFinalNewline() throws IOException {
+        Path file = write(HEADER + "P001;lapte;9.5\nP002;ouă;7.25");
+        try (PriceFileParser parser = PriceFileParser.open(new FileSystemResource(file))) {
+            assertTrue(parser.next());
+            assertTrue(parser.next());
+            assertEquals("ouă", parser.getString(1));
+            assertEquals(7.25, parser.getDouble(2));
+            assertFalse(parser.next());
+            assertFalse(parser.next());
+        }
+    }
+
+    @Test
+    void skipsByteOrderMarkAndParsesDates() throws IOException {
+        try (PriceFileParser parser = parse("\uFEFFfrom_date;to_date\n2025-05-01;2025-5-7\n")) {
+            assertTrue(parser.next());
+            assertEquals(LocalDate.of(2025, 5, 1), parser.getDate(0));
+            assertThrows(RuntimeException.class, () -> parser.getDate(1));
+        }
+    }
+
+    @Test
+    void readsRowCrossingWindowBoundary() throws IOException {
+        Path file = tempDir.resolve("lidl_2025-05-01.csv");
+        byte[] filler = "P000000;brânză telemea;1.00\n".getBytes(StandardCharsets.UTF_8);
+        byte[] crossing = "P999999;row crossing the window;123.45\n".getBytes(StandardCharsets.UTF_8);
+        byte[] header = HEADER.getBytes(StandardCharsets.UTF_8);
+        int fillerRows = (WINDOW_SIZE - header.length - crossing.length / 2) / filler.length;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(header);
+            byte[] block = new byte[filler.length * 4096];
+            for (int i = 0; i < block.length; i += filler.length) {
+                System.arraycopy(filler, 0, block, i, filler.length);
+            }
+            int rows = 0;
+            for (; rows + 4096 <= fillerRows; rows += 4096) {
+                out.write(block);
+            }
+            out.write(block, 0, (fillerRows - rows) * filler.length);
+            long crossingStart = header.length + (long) fillerRows * filler.length;
+            assertTrue(crossingStart < WINDOW_SIZE && crossingStart + crossing.length > WINDOW_SIZE);
+            out.write(crossing);
+            out.write("P000001;after;2\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (PriceFileParser parser = PriceFileParser.open(new FileSystemResource(file))) {
+            int rows = 0;
+            while (parser.next() && parser.getString(0).equals("P000000")) {
+                rows++;
+            }
+            assertEquals(fillerRows, rows);
+            assertEquals("P999999", parser.getString(0));
+            assertEquals("row crossing the window", parser.getString(1));
+            assertEquals(123.45, parser.getDouble(2));
+            assertTrue(parser.next());
+            assertEquals("after", parser.getString(1));
+            assertFalse(parser.next());
+        }
+    }
+
+    @Test
+    void parsesDoublesLikeTheJdkAroundTheFastPathLimits() throws IOException {
+        String[] values = {
+                "123456789012345",            // 15 digits, fast path
+                "1234567890123456",           // 16 digits, JDK fallback
+                "1.23456789012345",
+                "9.99999999999999",
+                "0.0000000000000000000001",   // scale 22, fast path
+                "0.00000000000000000000001",  // scale 23, JDK fallback
+                "-0.1",
+                "-0",
+                "0.30000000000000004",
+                "1e3",
+                "12."
+        };
+        try (PriceFileParser parser = parse("value\n" + String.join("\n", values) + "\n")) {
+            for (String value : values) {
+                assertTrue(parser.next());
+                assertEquals(Double.parseDouble(value), parser.getDouble(0), value);
+            }
+            assertFalse(parser.next());
+        }
+    }
+
+    @Test
+    void internsCollidingValuesSeparately() throws IOException {
+        // "Aa" and "BB" have the same hash, so they land in the same slot of the intern table
+        StringBuilder content = new StringBuilder("brand\n");
+        String[] values = new String[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 2 == 0 ? "Aa" : "BB") + i / 2;
+            content.append(values[i]).append('\n');
+        }
+        content.append("Aa0\nBB0\nAa99\nBB99\n");
+
+        try (PriceFileParser parser = parse(content.toString())) {
+            String[] interned = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                assertTrue(parser.next());
+                interned[i] = parser.getInternedString(0);
+                assertEquals(values[i], interned[i]);
+            }
+            for (int i : new int[]{0, 1, 198, 199}) {
+                assertTrue(parser.next());
+                assertSame(interned[i], parser.getInternedString(0));
+            }
+            assertFalse(parser.next());
+        }
+    }
+
+    private PriceFileParser parse(String content) throws IOException {
+        return PriceFileParser.open(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("lidl_2025-05-01.csv");
+        Files.writeString(file, content);
+        return file;
+    }
+}
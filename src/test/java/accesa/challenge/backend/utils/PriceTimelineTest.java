@@ -0,0 +1,138 @@
+package accesa.challenge.backend.utils;
+
+import accesa.challenge.backend.domain.dto.ProductPriceHistoryCompactDTO;
+import accesa.challenge.backend.domain.dto.ProductPricePointDTO;
+import accesa.challenge.backend.domain.entity.Product;
+import accesa.challenge.backend.domain.entity.ProductDiscount;
+import accesa.challenge.backend.domain.entity.ProductId;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTimelineTest {
+    private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+
+    @Test
+    void appliesDiscountFromItsStartDayThroughItsEndDay() {
+        PriceTimeline timeline = PriceTimeline.of(
+                List.of(snapshot(MAY_1, 10.0)),
+                List.of(discount(20, MAY_1.plusDays(3), MAY_1.plusDays(5))));
+
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(2)), 10.0, 0);
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(3)), 10.0, 20);
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(5)), 10.0, 20);
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(6)), 10.0, 0);
+    }
+
+    @Test
+    void appliesSingleDayDiscountOnlyOnThatDay() {
+        PriceTimeline timeline = PriceTimeline.of(
+                List.of(snapshot(MAY_1, 10.0)),
+                List.of(discount(50, MAY_1.plusDays(4), MAY_1.plusDays(4))));
+
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(3)), 10.0, 0);
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(4)), 10.0, 50);
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(5)), 10.0, 0);
+    }
+
+    @Test
+    void switchesBetweenAdjacentAndOverlappingDiscountsOnTheirBoundaryDays() {
+        // The first discount in the list wins while it overlaps with a later one
+        PriceTimeline timeline = PriceTimeline.of(
+                List.of(snapshot(MAY_1, 10.0)),
+                List.of(
+                        discount(10, MAY_1.plusDays(1), MAY_1.plusDays(3)),
+                        discount(30, MAY_1.plusDays(4), MAY_1.plusDays(6)),
+                        discount(5, MAY_1.plusDays(2), MAY_1.plusDays(8))));
+
+        assertEquals(0, timeline.getPricePoint(MAY_1).getDiscountPercentage());
+        assertEquals(10, timeline.getPricePoint(MAY_1.plusDays(1)).getDiscountPercentage());
+        assertEquals(10, timeline.getPricePoint(MAY_1.plusDays(3)).getDiscountPercentage());
+        assertEquals(30, timeline.getPricePoint(MAY_1.plusDays(4)).getDiscountPercentage());
+        assertEquals(30, timeline.getPricePoint(MAY_1.plusDays(6)).getDiscountPercentage());
+        assertEquals(5, timeline.getPricePoint(MAY_1.plusDays(7)).getDiscountPercentage());
+        assertEquals(5, timeline.getPricePoint(MAY_1.plusDays(8)).getDiscountPercentage());
+        assertEquals(0, timeline.getPricePoint(MAY_1.plusDays(9)).getDiscountPercentage());
+    }
+
+    @Test
+    void usesLatestSnapshotOnOrBeforeTheDate() {
+        PriceTimeline timeline = PriceTimeline.of(
+                List.of(snapshot(MAY_1.plusDays(7), 12.0), snapshot(MAY_1, 10.0)),
+                List.of(discount(10, MAY_1.plusDays(6), MAY_1.plusDays(7))));
+
+        assertNull(timeline.getPricePoint(MAY_1.minusDays(1)));
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(6)), 10.0, 10);
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(7)), 12.0, 10);
+        assertPrice(timeline.getPricePoint(MAY_1.plusDays(8)), 12.0, 0);
+    }
+
+    @Test
+    void compactHistoryExpandsToTheDailyPricePoints() {
+        PriceTimeline timeline = PriceTimeline.of(
+                List.of(snapshot(MAY_1, 10.0), snapshot(MAY_1.plusDays(4), 10.0), snapshot(MAY_1.plusDays(9), 8.5)),
+                List.of(
+                        discount(10, MAY_1.plusDays(2), MAY_1.plusDays(3)),
+                        discount(10, MAY_1.plusDays(4), MAY_1.plusDays(5)),
+                        discount(25, MAY_1.plusDays(9), MAY_1.plusDays(9)),
+                        discount(15, MAY_1.plusDays(12), MAY_1.plusDays(20))));
+
+        LocalDate fromDate = MAY_1.minusDays(3);
+        LocalDate toDate = MAY_1.plusDays(15);
+        ProductPriceHistoryCompactDTO history = timeline.getCompactHistory(fromDate, toDate);
+
+        // Equal neighbouring runs are merged: the unchanged snapshot and the adjacent 10% discounts
+        assertEquals(MAY_1, history.getStartDate());
+        assertArrayEquals(new int[]{2, 4, 3, 1, 2, 4}, history.getRunLengths());
+        assertArrayEquals(new int[]{0, 10, 0, 25, 0, 15}, history.getDiscountPercentages());
+
+        LocalDate date = history.getStartDate();
+        for (int run = 0; run < history.getRunLengths().length; run++) {
+            for (int i = 0; i < history.getRunLengths()[run]; i++, date = date.plusDays(1)) {
+                ProductPricePointDTO point = timeline.getPricePoint(date);
+                assertEquals(point.getOriginalPrice(), history.getOriginalPrices()[run], date.toString());
+                assertEquals(point.getDiscountPercentage(), history.getDiscountPercentages()[run], date.toString());
+                assertEquals(point.getFinalPrice(), history.getFinalPrices()[run], date.toString());
+            }
+        }
+        assertEquals(toDate.plusDays(1), date);
+    }
+
+    @Test
+    void compactHistoryIsEmptyBeforeTheFirstSnapshot() {
+        PriceTimeline timeline = PriceTimeline.of(List.of(snapshot(MAY_1, 10.0)), List.of());
+
+        ProductPriceHistoryCompactDTO history = timeline.getCompactHistory(MAY_1.minusDays(5), MAY_1.minusDays(1));
+
+        assertNull(history.getStartDate());
+        assertEquals(0, history.getRunLengths().length);
+        assertEquals(0, history.getFinalPrices().length);
+        assertEquals(1, timeline.getCompactHistory(MAY_1, MAY_1).getRunLengths().length);
+    }
+
+    private static void assertPrice(ProductPricePointDTO point, double originalPrice, int discountPercentage) {
+        assertNotNull(point);
+        assertEquals(originalPrice, point.getOriginalPrice());
+        assertEquals(discountPercentage, point.getDiscountPercentage());
+        assertEquals(originalPrice * (1 - discountPercentage / 100.0), point.getFinalPrice(), 1e-9);
+    }
+
+    private static Product snapshot(LocalDate creationDate, double price) {
+        return Product.builder()
+                .productId(new ProductId("P001", creationDate, "lidl"))
+                .productName("lapte zuzu")
+                .price(price)
+                .build();
+    }
+
+    private static ProductDiscount discount(int percentage, LocalDate fromDate, LocalDate toDate) {
+        return ProductDiscount.builder()
+                .discountPercentage((double) percentage)
+                .discountFromDate(fromDate)
+                .discountToDate(toDate)
+                .build();
+    }
+}